@@ -0,0 +1,76 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.controller.ApiClientController;
+import com.example.allotest.store.CrossRates;
+import com.example.allotest.store.DataLoader;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.LatestPrices;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SnapshotFileStore;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// The whole GET /api/finance/data/{resourceType} path through MockMvc: dispatch, controller,
+// header building and copying the pre-serialized body, without a socket in the way.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerGetDataBenchmark {
+
+    @Param({ResourceTypeConstants.LATEST_IDR_RATES, ResourceTypeConstants.SUPPORTED_CURRENCIES})
+    public String resourceType;
+
+    @Param({"identity", "gzip"})
+    public String acceptEncoding;
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() throws Exception {
+        ResponseSerializer serializer = new ResponseSerializer(JsonMapper.builder().build());
+        DataStore store = new DataStore(serializer);
+        Map<String, IDataFetcher> strategies = StartupBenchmark.fetchers(StubFrankfurter.webClient(Duration.ZERO, 30), 30);
+        new DataLoader(strategies, store, Duration.ofSeconds(30), new SnapshotFileStore(false, Path.of("unused")),
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+                new FetchMetrics(new SimpleMeterRegistry())).run(null);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ApiClientController(store, strategies, serializer, new RefreshProperties(),
+                        new RateHistory(store, new DeltaProperties()), new CrossRates(store, serializer),
+                        new LatestPrices(store, serializer)))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] getData() throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/finance/data/{resourceType}", resourceType)
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return mockMvc.perform(request).andReturn().getResponse().getContentAsByteArray();
+    }
+}
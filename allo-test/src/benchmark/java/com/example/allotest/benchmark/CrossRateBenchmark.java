@@ -0,0 +1,89 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.controller.ApiClientController;
+import com.example.allotest.model.CrossRateMatrix;
+import com.example.allotest.store.CrossRates;
+import com.example.allotest.store.DataLoader;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.LatestPrices;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResourceEntry;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SnapshotFileStore;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// GET /api/finance/data/latest_rates for the IDR table's own base and for other bases, next to the
+// plain latest_idr_rates request: every base should cost the same. buildMatrix is what a refresh pays
+// for the matrix and all its serialized rows.
+//   -Dbenchmark.include=CrossRate
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CrossRateBenchmark {
+
+    @Param({"IDR", "USD", "JPY"})
+    public String base;
+
+    private MockMvc mockMvc;
+
+    private ResourceEntry latestEntry;
+
+    private ResponseSerializer serializer;
+
+    @Setup
+    public void setUp() throws Exception {
+        serializer = new ResponseSerializer(JsonMapper.builder().build());
+        DataStore store = new DataStore(serializer);
+        Map<String, IDataFetcher> strategies = StartupBenchmark.fetchers(StubFrankfurter.webClient(Duration.ZERO, 30), 30);
+        new DataLoader(strategies, store, Duration.ofSeconds(30), new SnapshotFileStore(false, Path.of("unused")),
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+                new FetchMetrics(new SimpleMeterRegistry())).run(null);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ApiClientController(store, strategies, serializer, new RefreshProperties(),
+                        new RateHistory(store, new DeltaProperties()), new CrossRates(store, serializer),
+                        new LatestPrices(store, serializer)))
+                .build();
+        latestEntry = store.getEntry(ResourceTypeConstants.LATEST_IDR_RATES);
+    }
+
+    @Benchmark
+    public byte[] getLatestIdrRates() throws Exception {
+        return mockMvc.perform(get("/api/finance/data/latest_idr_rates")).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public byte[] getLatestRatesForBase() throws Exception {
+        return mockMvc.perform(get("/api/finance/data/latest_rates").param("base", base))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    @Benchmark
+    public CrossRateMatrix buildMatrix() {
+        return new CrossRates(new DataStore(serializer), serializer).matrixFor(latestEntry);
+    }
+}
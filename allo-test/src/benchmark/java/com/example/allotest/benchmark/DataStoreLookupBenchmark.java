@@ -0,0 +1,56 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.store.DataLoader;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SnapshotFileStore;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Read side of the store: every data request starts with one of these lookups against the
+// published snapshot, so it should stay a couple of loads and a hash probe.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataStoreLookupBenchmark {
+
+    @Param({ResourceTypeConstants.LATEST_IDR_RATES, ResourceTypeConstants.HISTORICAL_IDR_SERIES, "unknown"})
+    public String resourceType;
+
+    private DataStore store;
+
+    @Setup
+    public void setUp() throws Exception {
+        store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        new DataLoader(StartupBenchmark.fetchers(StubFrankfurter.webClient(Duration.ZERO, 365), 365),
+                store, Duration.ofSeconds(30), new SnapshotFileStore(false, Path.of("unused")),
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+                new FetchMetrics(new SimpleMeterRegistry())).run(null);
+    }
+
+    @Benchmark
+    public Object[] getFromStore() {
+        return store.getFromStore(resourceType);
+    }
+
+    @Benchmark
+    public Object getEntry() {
+        return store.getSnapshot().getEntry(resourceType);
+    }
+}
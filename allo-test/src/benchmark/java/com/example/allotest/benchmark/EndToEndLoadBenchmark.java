@@ -0,0 +1,58 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.AlloTestApplication;
+import com.example.allotest.support.FakeFrankfurter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+// The whole stack over real HTTP and offline: FakeFrankfurter on a local port as the upstream, the
+// application started cold against it, and an open-loop load at a fixed request rate spread over the
+// given paths. Range queries before the stored window go upstream through the connection pool;
+// a short refresh interval keeps the scheduler fetching while the load runs.
+//   -Dbenchmark.rate=500 -Dbenchmark.warmup-seconds=5 -Dbenchmark.duration-seconds=15
+//   -Dbenchmark.paths=/api/finance/data/latest_idr_rates,/api/finance/historical/USD?from=2020-01-01&to=2020-03-31
+//   -Dbenchmark.profile=reactive -Dbenchmark.refresh-interval=10s
+//   -Dfake-frankfurter.latency-ms=50 -Dfake-frankfurter.error-rate=0.01 -Dfake-frankfurter.currencies=30
+public class EndToEndLoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        double rate = Double.parseDouble(System.getProperty("benchmark.rate", "500"));
+        String[] paths = System.getProperty("benchmark.paths",
+                "/api/finance/data/latest_idr_rates,/api/finance/data/historical_idr_series,"
+                        + "/api/finance/historical/USD?from=2020-01-01&to=2020-03-31").split(",");
+        String profile = System.getProperty("benchmark.profile", "default");
+        String refreshInterval = System.getProperty("benchmark.refresh-interval", "10s");
+
+        try (FakeFrankfurter upstream = FakeFrankfurter.fromSystemProperties().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(AlloTestApplication.class)
+                     .profiles(profile)
+                     // command-line arguments, so they win over application.yaml
+                     .run("--server.port=0",
+                             "--frankfurter.api.base-url=" + upstream.getBaseUrl(),
+                             "--data.snapshot.enabled=false",
+                             "--data.refresh.default-interval=" + refreshInterval,
+                             "--data.refresh.intervals.latest_idr_rates=" + refreshInterval,
+                             "--data.refresh.intervals.historical_idr_usd=" + refreshInterval,
+                             "--data.refresh.intervals.supported_currencies=" + refreshInterval,
+                             "--data.refresh.intervals.historical_idr_series=" + refreshInterval,
+                             "--logging.level.root=WARN",
+                             "--logging.level.com.example.allotest=OFF")) {
+            String port = context.getEnvironment().getProperty("local.server.port");
+            List<URI> uris = new ArrayList<>(paths.length);
+            for (String path : paths) {
+                uris.add(URI.create("http://localhost:" + port + path.trim()));
+            }
+
+            LoadDriver.Result result = LoadDriver.fromSystemProperties().runAtRate(uris, rate);
+
+            System.out.printf("profile %s, target %.0f req/s over %d paths%n", profile, rate, uris.size());
+            System.out.println(result.format("end to end"));
+            System.out.printf("upstream served %d requests, %d injected errors%n",
+                    upstream.getRequests(), upstream.getErrors());
+        }
+    }
+}
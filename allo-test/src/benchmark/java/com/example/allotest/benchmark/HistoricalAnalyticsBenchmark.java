@@ -0,0 +1,57 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.HistoricalSeries;
+import com.example.allotest.model.SeriesAnalytics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The analytics kept per currency over a two-year series: building them from scratch, as a restart or
+// a revised series does, against the work a refresh that adds one day costs (append it, drop the day
+// that left the window), plus a 20-day moving average over the whole window.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistoricalAnalyticsBenchmark {
+
+    private HistoricalSeries usd;
+
+    private SeriesAnalytics sliding;
+
+    private int nextDay;
+
+    @Setup
+    public void setUp() {
+        Map<?, ?> response = JsonMapper.builder().build().readValue(StubFrankfurter.historyJson(730), Map.class);
+        usd = HistoricalRates.fromResponse(response).series("USD");
+        sliding = SeriesAnalytics.of(usd);
+        nextDay = usd.lastDay() + 1;
+    }
+
+    @Benchmark
+    public SeriesAnalytics buildSeries() {
+        return SeriesAnalytics.of(usd);
+    }
+
+    @Benchmark
+    public int appendDay() {
+        int day = nextDay++;
+        sliding.append(day, 0.000063 + 1e-7 * Math.sin(day));
+        sliding.dropBefore(day - 730);
+        return sliding.size();
+    }
+
+    @Benchmark
+    public SeriesAnalytics.Points movingAverage() {
+        return sliding.movingAverage(20, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+}
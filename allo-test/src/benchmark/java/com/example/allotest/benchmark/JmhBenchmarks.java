@@ -0,0 +1,60 @@
+package com.example.allotest.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Runs the JMH benchmarks (DataStoreLookup, LatestRatesTransform, UpstreamDecode, PricingEngine,
+// HistoricalAnalytics, ResponseSerialization, ResponseEncoding, CrossRate, ControllerGetData). exec:java loads the test
+// classpath into its own class loader, so it is copied into java.class.path first for the forked benchmark
+// JVMs to find the same classes.
+//   -Dbenchmark.include=Controller -Dbenchmark.forks=1 -Dbenchmark.warmup=3 -Dbenchmark.measurement=5
+//   -Dbenchmark.result=target/jmh.json (machine-readable results for comparing runs)
+//   -Dbenchmark.profilers=gc (any JMH profiler names, comma separated)
+public class JmhBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.class.path", classPath());
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include", "com\\.example\\.allotest\\..*Benchmark"))
+                .forks(Integer.getInteger("benchmark.forks", 1))
+                .warmupIterations(Integer.getInteger("benchmark.warmup", 3))
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(Integer.getInteger("benchmark.measurement", 5))
+                .measurementTime(TimeValue.seconds(1))
+                .shouldFailOnError(true);
+        for (String profiler : System.getProperty("benchmark.profilers", "").split(",")) {
+            if (!profiler.isBlank()) {
+                options.addProfiler(profiler.trim());
+            }
+        }
+        String result = System.getProperty("benchmark.result");
+        if (result != null) {
+            options.result(result).resultFormat(ResultFormatType.JSON);
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String classPath() throws URISyntaxException {
+        List<String> entries = new ArrayList<>();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader urlClassLoader) {
+            for (URL url : urlClassLoader.getURLs()) {
+                entries.add(Path.of(url.toURI()).toString());
+            }
+        }
+        entries.add(System.getProperty("java.class.path"));
+        return String.join(File.pathSeparator, entries);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.allotest.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Closed-loop load: each of the client threads sends its next GET as soon as the previous one
+// returns, for a fixed duration after a warm-up, and keeps every latency for the percentiles.
+// Open-loop load (runAtRate): GETs are started on a fixed schedule whatever the response times, and
+// each latency is measured from when the request was due, so a stalled server shows up in the
+// percentiles instead of just slowing the driver down.
+public class LoadDriver {
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final int concurrency;
+    private final Duration warmUp;
+    private final Duration duration;
+
+    public LoadDriver(int concurrency, Duration warmUp, Duration duration) {
+        this.concurrency = concurrency;
+        this.warmUp = warmUp;
+        this.duration = duration;
+    }
+
+    public static LoadDriver fromSystemProperties() {
+        return new LoadDriver(
+                Integer.getInteger("benchmark.concurrency", 64),
+                Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 15)));
+    }
+
+    public Result run(URI uri) throws Exception {
+        drive(uri, warmUp);
+        return drive(uri, duration);
+    }
+
+    // requests go round-robin over the given URIs
+    public Result runAtRate(List<URI> uris, double requestsPerSecond) throws Exception {
+        driveAtRate(uris, requestsPerSecond, warmUp);
+        return driveAtRate(uris, requestsPerSecond, duration);
+    }
+
+    private Result driveAtRate(List<URI> uris, double requestsPerSecond, Duration length) throws Exception {
+        List<HttpRequest> requests = new ArrayList<>(uris.size());
+        for (URI uri : uris) {
+            requests.add(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build());
+        }
+        int total = (int) Math.max(1, Math.round(requestsPerSecond * length.toNanos() / 1e9));
+        long intervalNanos = (long) (1e9 / requestsPerSecond);
+        long[] latencies = new long[total];
+        AtomicLong errors = new AtomicLong();
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[total];
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long dueAt = startedAt + i * intervalNanos;
+            long wait = dueAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int slot = i;
+            responses[i] = client.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.ofByteArray())
+                    .handle((response, failure) -> {
+                        if (failure != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[slot] = System.nanoTime() - dueAt;
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(responses).join();
+        long elapsed = System.nanoTime() - startedAt;
+
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), Duration.ofNanos(elapsed));
+    }
+
+    private Result drive(URI uri, Duration length) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long startedAt = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - startedAt;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] latencies = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + latencies.length);
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+            }
+            Arrays.sort(all);
+            return new Result(all, errors.get(), length);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    public static class Result {
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final Duration length;
+
+        Result(long[] sortedLatencies, long errors, Duration length) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.length = length;
+        }
+
+        public double throughput() {
+            return sortedLatencies.length / (length.toNanos() / 1e9);
+        }
+
+        public double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(sortedLatencies.length * percentile) - 1);
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+
+        public String format(String label) {
+            return String.format("%-28s %9.0f req/s   p50 %7.2f ms   p99 %7.2f ms   p999 %7.2f ms   errors %d",
+                    label, throughput(), percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999), errors);
+        }
+    }
+}
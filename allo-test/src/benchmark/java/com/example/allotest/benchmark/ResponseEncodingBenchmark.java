@@ -0,0 +1,71 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// The envelope in each encoding the data endpoint negotiates: encode is what the server pays once
+// per snapshot, decode is what every consumer pays per response. Wire sizes are printed at setup.
+//   -Dbenchmark.include=ResponseEncoding
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({ResourceTypeConstants.LATEST_IDR_RATES, ResourceTypeConstants.HISTORICAL_IDR_USD})
+    public String resourceType;
+
+    private ObjectMapper mapper;
+
+    private Object[] data;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        data = StartupBenchmark.fetchers(StubFrankfurter.webClient(Duration.ZERO, 1), 365)
+                .get(resourceType)
+                .fetchDataAsync()
+                .block();
+        encoded = encode();
+        System.out.println("# wire size " + resourceType + " " + format + ": " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return mapper.writeValueAsBytes(new BaseResponseDto<>(
+                ApiResponseConstants.OK_STATUS_CODE,
+                ApiResponseConstants.OK_STATUS_MESSAGE,
+                resourceType,
+                data));
+    }
+
+    @Benchmark
+    public JsonNode decode() {
+        return mapper.readTree(encoded);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SerializedResponse;
+import com.example.allotest.strategy.IDataFetcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// JSON for a 30-currency latest_idr_rates payload: the plain BaseResponseDto write Jackson does for
+// any envelope, and the publish-time ResponseSerializer path that adds the content hash and gzip.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+
+    private ResponseSerializer serializer;
+
+    private Object[] latestRates;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        serializer = new ResponseSerializer(jsonMapper);
+        IDataFetcher fetcher = StartupBenchmark.fetchers(StubFrankfurter.webClient(Duration.ZERO, 1), 1)
+                .get(ResourceTypeConstants.LATEST_IDR_RATES);
+        latestRates = fetcher.fetchDataAsync().block();
+    }
+
+    @Benchmark
+    public byte[] writeEnvelope() {
+        return jsonMapper.writeValueAsBytes(new BaseResponseDto<>(
+                ApiResponseConstants.OK_STATUS_CODE,
+                ApiResponseConstants.OK_STATUS_MESSAGE,
+                ResourceTypeConstants.LATEST_IDR_RATES,
+                latestRates));
+    }
+
+    @Benchmark
+    public SerializedResponse serializeForPublish() {
+        return serializer.serialize(ResourceTypeConstants.LATEST_IDR_RATES, latestRates);
+    }
+}
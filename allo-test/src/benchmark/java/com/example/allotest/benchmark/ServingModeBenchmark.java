@@ -0,0 +1,102 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.AlloTestApplication;
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.store.DataSnapshot;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SnapshotFileStore;
+import com.example.allotest.strategy.HistoricalSeriesFetcher;
+import com.example.allotest.strategy.LatestRatesFetcher;
+import com.example.allotest.strategy.PricingEngine;
+import com.example.allotest.strategy.SupportedCurrenciesFetcher;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Boots the application once on Tomcat/MVC and once on Netty/WebFlux (the "reactive" profile) and
+// drives the same endpoint at each. Both start warm from one snapshot file, and the upstream points
+// at a closed port, so the numbers only cover request handling.
+//   -Dbenchmark.concurrency=64 -Dbenchmark.warmup-seconds=5 -Dbenchmark.duration-seconds=15
+//   -Dbenchmark.path=/api/finance/data/latest_idr_rates
+public class ServingModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String path = System.getProperty("benchmark.path", "/api/finance/data/latest_idr_rates");
+        Path snapshotFile = writeSnapshot();
+        LoadDriver driver = LoadDriver.fromSystemProperties();
+
+        LoadDriver.Result servlet = run(driver, path, snapshotFile, "default");
+        LoadDriver.Result reactive = run(driver, path, snapshotFile, "reactive");
+
+        System.out.println("GET " + path);
+        System.out.println(servlet.format("tomcat / mvc"));
+        System.out.println(reactive.format("netty / webflux"));
+        Files.deleteIfExists(snapshotFile);
+    }
+
+    static LoadDriver.Result run(LoadDriver driver, String path, Path snapshotFile, String profile) throws Exception {
+        try (ConfigurableApplicationContext context = start(snapshotFile, profile)) {
+            checkOverrides(context, snapshotFile);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            return driver.run(URI.create("http://localhost:" + port + path));
+        }
+    }
+
+    static ConfigurableApplicationContext start(Path snapshotFile, String... profiles) {
+        return new SpringApplicationBuilder(AlloTestApplication.class)
+                .profiles(profiles)
+                // command-line arguments, so they win over application.yaml
+                .run("--server.port=0",
+                        "--frankfurter.api.base-url=http://localhost:1",
+                        "--data.refresh.enabled=false",
+                        "--data.snapshot.enabled=true",
+                        "--data.snapshot.path=" + snapshotFile,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.example.allotest=OFF");
+    }
+
+    // a run against the real upstream, with refreshes on or without the warm snapshot would measure
+    // something else entirely, so stop rather than print its numbers
+    static void checkOverrides(ConfigurableApplicationContext context, Path snapshotFile) {
+        Environment environment = context.getEnvironment();
+        expect(environment, "frankfurter.api.base-url", "http://localhost:1");
+        expect(environment, "data.refresh.enabled", "false");
+        expect(environment, "data.snapshot.path", snapshotFile.toString());
+        if (context.getBean(DataStore.class).getFromStore(ResourceTypeConstants.LATEST_IDR_RATES) == null) {
+            throw new IllegalStateException("the store did not start warm from " + snapshotFile);
+        }
+    }
+
+    private static void expect(Environment environment, String name, String value) {
+        String actual = environment.getProperty(name);
+        if (!value.equals(actual)) {
+            throw new IllegalStateException(name + " is " + actual + ", the benchmark needs " + value);
+        }
+    }
+
+    static Path writeSnapshot() throws Exception {
+        WebClient webClient = StubFrankfurter.webClient(Duration.ZERO, 730);
+        LatestRatesFetcher latest = new LatestRatesFetcher(webClient, new PricingEngine(new PricingProperties()));
+        ReflectionTestUtils.setField(latest, "githubUsername", "benchmark");
+
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish(ResourceTypeConstants.LATEST_IDR_RATES, latest.fetchData());
+        store.publish(ResourceTypeConstants.SUPPORTED_CURRENCIES, new SupportedCurrenciesFetcher(webClient).fetchData());
+        DataSnapshot snapshot = store.publish(ResourceTypeConstants.HISTORICAL_IDR_SERIES, new HistoricalSeriesFetcher(webClient).fetchData());
+
+        Path file = Files.createTempFile("serving-benchmark", ".bin");
+        Files.delete(file);
+        new SnapshotFileStore(true, file).save(snapshot);
+        return file;
+    }
+}
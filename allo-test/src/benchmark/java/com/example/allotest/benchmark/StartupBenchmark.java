@@ -0,0 +1,97 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.store.DataLoader;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SnapshotFileStore;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.HistoricalFetcher;
+import com.example.allotest.strategy.HistoricalSeriesFetcher;
+import com.example.allotest.strategy.IDataFetcher;
+import com.example.allotest.strategy.LatestRatesFetcher;
+import com.example.allotest.strategy.PricingEngine;
+import com.example.allotest.strategy.SupportedCurrenciesFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Time from DataLoader.run() until the store reports loaded: cold runs fetch every resource from a
+// stub upstream with a fixed latency, warm runs read the snapshot file the cold run left behind.
+//   -Dbenchmark.iterations=20 -Dbenchmark.latency-ms=300 -Dbenchmark.history-days=730
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", 20);
+        Duration latency = Duration.ofMillis(Long.getLong("benchmark.latency-ms", 300));
+        int historyDays = Integer.getInteger("benchmark.history-days", 730);
+
+        WebClient webClient = StubFrankfurter.webClient(latency, historyDays);
+        Map<String, IDataFetcher> strategies = fetchers(webClient, historyDays);
+        Path dir = Files.createTempDirectory("startup-benchmark");
+        Path file = dir.resolve("snapshot.bin");
+
+        long[] cold = new long[iterations];
+        long[] warm = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            Files.deleteIfExists(file);
+            cold[i] = timeToReady(strategies, new SnapshotFileStore(true, file));
+            warm[i] = timeToReady(strategies, new SnapshotFileStore(true, file));
+        }
+
+        System.out.printf("upstream latency %d ms, %d days of history, snapshot file %d bytes%n",
+                latency.toMillis(), historyDays, Files.size(file));
+        report("cold start (live fetch)", cold);
+        report("warm start (mapped snapshot)", warm);
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    private static long timeToReady(Map<String, IDataFetcher> strategies, SnapshotFileStore fileStore) throws Exception {
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        DataLoader loader = new DataLoader(strategies, store, Duration.ofSeconds(30), fileStore,
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()),
+                new FetchMetrics(new SimpleMeterRegistry()));
+        long startedAt = System.nanoTime();
+        loader.run(null);
+        long elapsed = System.nanoTime() - startedAt;
+        if (!store.isLoaded()) {
+            throw new IllegalStateException("store was not loaded");
+        }
+        return elapsed;
+    }
+
+    static Map<String, IDataFetcher> fetchers(WebClient webClient, int historyDays) {
+        LatestRatesFetcher latest = new LatestRatesFetcher(webClient, new PricingEngine(new PricingProperties()));
+        ReflectionTestUtils.setField(latest, "githubUsername", "benchmark");
+        HistoricalSeriesFetcher series = new HistoricalSeriesFetcher(webClient);
+        ReflectionTestUtils.setField(series, "lookbackDays", historyDays);
+
+        Map<String, IDataFetcher> strategies = new LinkedHashMap<>();
+        strategies.put(ResourceTypeConstants.LATEST_IDR_RATES, latest);
+        strategies.put(ResourceTypeConstants.HISTORICAL_IDR_USD, new HistoricalFetcher(webClient));
+        strategies.put(ResourceTypeConstants.SUPPORTED_CURRENCIES, new SupportedCurrenciesFetcher(webClient));
+        strategies.put(ResourceTypeConstants.HISTORICAL_IDR_SERIES, series);
+        return strategies;
+    }
+
+    static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-30s median %8.2f ms   p90 %8.2f ms   min %8.2f ms%n", label,
+                sorted[sorted.length / 2] / 1e6,
+                sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.9) - 1)] / 1e6,
+                sorted[0] / 1e6);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.allotest.benchmark;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+
+// WebClient whose exchange function answers every Frankfurter path with a canned body after a fixed
+// delay, so the benchmarks measure our side of the work plus a predictable upstream latency
+public class StubFrankfurter {
+    static final String[] CURRENCIES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD", "HUF",
+            "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD", "PHP", "PLN", "RON",
+            "SEK", "SGD", "THB", "TRY", "USD", "ZAR"
+    };
+
+    private StubFrankfurter() {
+    }
+
+    public static WebClient webClient(Duration latency, int historyDays) {
+        String latest = latestJson();
+        String currencies = currenciesJson();
+        String history = historyJson(historyDays);
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        return WebClient.builder()
+                .baseUrl("http://frankfurter.stub")
+                .exchangeStrategies(strategies)
+                .exchangeFunction(request -> {
+                    String path = request.url().getPath();
+                    String body = path.startsWith("/latest") ? latest
+                            : path.startsWith("/currencies") ? currencies
+                            : history;
+                    Mono<ClientResponse> response = Mono.fromSupplier(() -> ClientResponse.create(HttpStatus.OK, strategies)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(body)
+                            .build());
+                    // zero latency stays on the calling thread instead of hopping through a timer
+                    return latency.isZero() ? response : Mono.delay(latency).then(response);
+                })
+                .build();
+    }
+
+    public static String latestJson() {
+        StringBuilder json = new StringBuilder("{\"amount\":1.0,\"base\":\"IDR\",\"date\":\"2024-01-05\",\"rates\":{");
+        appendRates(json, 0);
+        return json.append("}}").toString();
+    }
+
+    static String currenciesJson() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append('"').append(CURRENCIES[i]).append("\":\"Currency ").append(CURRENCIES[i]).append('"');
+        }
+        return json.append('}').toString();
+    }
+
+    public static String historyJson(int days) {
+        LocalDate start = LocalDate.now().minusDays(days);
+        StringBuilder json = new StringBuilder("{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"")
+                .append(start).append("\",\"end_date\":\"").append(LocalDate.now()).append("\",\"rates\":{");
+        for (int day = 0; day < days; day++) {
+            if (day > 0) {
+                json.append(',');
+            }
+            json.append('"').append(start.plusDays(day)).append("\":{");
+            appendRates(json, day);
+            json.append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendRates(StringBuilder json, int day) {
+        for (int i = 0; i < CURRENCIES.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            double rate = 0.00005 * (i + 1) * (1 + 0.001 * Math.sin(day + i));
+            json.append('"').append(CURRENCIES[i]).append("\":").append(String.format(Locale.ROOT, "%.8f", rate));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.allotest.benchmark;
+
+import com.example.allotest.strategy.IDataFetcher;
+import com.example.allotest.strategy.SupportedCurrenciesFetcher;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A burst of blocking fetchData() calls against a slow stub upstream, handed either to a pool the size
+// of Tomcat's default worker pool or to one virtual thread per call. Latency runs from submission to
+// completion, so time spent queued for a platform thread counts. Needs JDK 21, since without the
+// virtual run there is nothing to compare; the first round of each only warms up the JIT and is not printed.
+//   -Dbenchmark.calls=5000 -Dbenchmark.latency-ms=200 -Dbenchmark.platform-threads=200 -Dbenchmark.rounds=3
+//   -Dbenchmark.warmup-rounds=1
+public class VirtualThreadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int calls = Integer.getInteger("benchmark.calls", 5_000);
+        int platformThreads = Integer.getInteger("benchmark.platform-threads", 200);
+        int rounds = Integer.getInteger("benchmark.rounds", 3);
+        int warmupRounds = Integer.getInteger("benchmark.warmup-rounds", 1);
+        Duration latency = Duration.ofMillis(Long.getLong("benchmark.latency-ms", 200));
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("virtual threads need JDK 21, this is JDK " + Runtime.version().feature()
+                    + "; run with JAVA_HOME pointing at a JDK 21 or later");
+        }
+        IDataFetcher fetcher = new SupportedCurrenciesFetcher(StubFrankfurter.webClient(latency, 1));
+
+        System.out.printf("%d concurrent blocking fetches, upstream latency %d ms, JDK %s%n",
+                calls, latency.toMillis(), Runtime.version().feature());
+        for (int round = 1 - warmupRounds; round <= rounds; round++) {
+            ExecutorService platform = Executors.newFixedThreadPool(platformThreads);
+            try {
+                Result result = burst(fetcher, platform, calls);
+                if (round >= 1) {
+                    System.out.println(result.format("platform pool (" + platformThreads + ")"));
+                }
+            } finally {
+                platform.shutdownNow();
+            }
+            Result result = burst(fetcher, new VirtualThreadTaskExecutor("benchmark-"), calls);
+            if (round >= 1) {
+                System.out.println(result.format("virtual thread per call"));
+            }
+        }
+    }
+
+    static Result burst(IDataFetcher fetcher, Executor executor, int calls) throws InterruptedException {
+        long[] latencies = new long[calls];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(calls);
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            int slot = i;
+            long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    fetcher.fetchData();
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[slot] = System.nanoTime() - submittedAt;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - startedAt;
+        Arrays.sort(latencies);
+        return new Result(latencies, elapsed, errors.get());
+    }
+
+    static class Result {
+        private final long[] sortedLatencies;
+        private final long elapsedNanos;
+        private final long errors;
+
+        Result(long[] sortedLatencies, long elapsedNanos, long errors) {
+            this.sortedLatencies = sortedLatencies;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        String format(String label) {
+            return String.format("%-26s %8.0f calls/s   p50 %8.2f ms   p99 %8.2f ms   errors %d", label,
+                    sortedLatencies.length / (elapsedNanos / 1e9),
+                    sortedLatencies[sortedLatencies.length / 2] / 1e6,
+                    sortedLatencies[(int) Math.ceil(sortedLatencies.length * 0.99) - 1] / 1e6,
+                    errors);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.benchmark.StubFrankfurter;
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.model.LatestRates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// LatestRatesFetcher's work on a 30-currency /latest body: once from the raw bytes (streaming decode
+// into the rate table plus spread math), once end to end through a zero-latency stub so the
+// WebClient plumbing is included. Lives in the strategy package to reach the package-private parts.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LatestRatesTransformBenchmark {
+
+    private byte[] body;
+
+    private LatestRatesFetcher fetcher;
+
+    @Setup
+    public void setUp() {
+        body = StubFrankfurter.latestJson().getBytes(StandardCharsets.UTF_8);
+        fetcher = new LatestRatesFetcher(StubFrankfurter.webClient(Duration.ZERO, 1), new PricingEngine(new PricingProperties()));
+        ReflectionTestUtils.setField(fetcher, "githubUsername", "benchmark");
+    }
+
+    @Benchmark
+    public LatestRates transform() {
+        return fetcher.toLatestRates(RatesJsonDecoder.decodeLatest(body));
+    }
+
+    @Benchmark
+    public Object[] fetchAndTransform() {
+        return fetcher.fetchDataAsync().block();
+    }
+}
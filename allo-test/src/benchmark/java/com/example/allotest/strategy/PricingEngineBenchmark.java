@@ -0,0 +1,52 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.benchmark.StubFrankfurter;
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// The pricing pass run on every latest_idr_rates refresh, over the 30-currency stub table with a few
+// per-currency overrides: the bare loop over already resolved spreads, and the full pass including
+// the override lookups.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingEngineBenchmark {
+
+    private RateTable table;
+
+    private PricingEngine engine;
+
+    private double[] spreads;
+
+    @Setup
+    public void setUp() {
+        table = RatesJsonDecoder.decodeLatest(StubFrankfurter.latestJson().getBytes(StandardCharsets.UTF_8));
+        PricingProperties properties = new PricingProperties();
+        properties.getSpreads().put("USD", 0.002);
+        properties.getSpreads().put("EUR", 0.003);
+        properties.getSpreads().put("JPY", 0.01);
+        engine = new PricingEngine(properties);
+        spreads = engine.spreadsFor(table.getIndex(), 0.00836);
+    }
+
+    @Benchmark
+    public PriceTable priceResolvedSpreads() {
+        return PricingEngine.price(table, spreads);
+    }
+
+    @Benchmark
+    public PriceTable priceWithOverrides() {
+        return engine.price(table, 0.00836);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.benchmark.StubFrankfurter;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.RateTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Tree decoding (what bodyToMono(Object.class) did: a LinkedHashMap per day, a boxed Double per
+// rate, then a copy into the model) against the streaming decoder, on the bodies the refresh
+// actually receives. Run with -Dbenchmark.profilers=gc for gc.alloc.rate.norm, the bytes allocated
+// per decode, which is what the refresh adds to heap and GC pressure.
+//   -Dbenchmark.include=UpstreamDecode -Dbenchmark.profilers=gc
+// Allocation is not what stays on the heap, so main() measures retained bytes on its own:
+//   -Dexec.mainClass=com.example.allotest.strategy.UpstreamDecodeBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UpstreamDecodeBenchmark {
+    private static final int COPIES = 64;
+    private static final int ROUNDS = 5;
+
+    @Param({"30", "730"})
+    public int historyDays;
+
+    private JsonMapper jsonMapper;
+
+    private byte[] history;
+
+    private byte[] latest;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        history = StubFrankfurter.historyJson(historyDays).getBytes(StandardCharsets.UTF_8);
+        latest = StubFrankfurter.latestJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public HistoricalRates historyTree() {
+        return HistoricalRates.fromResponse(jsonMapper.readValue(history, Map.class));
+    }
+
+    @Benchmark
+    public HistoricalRates historyStreaming() {
+        return RatesJsonDecoder.decodeHistorical(history);
+    }
+
+    @Benchmark
+    public RateTable latestTree() {
+        return RateTable.fromResponse(jsonMapper.readValue(latest, Map.class));
+    }
+
+    @Benchmark
+    public RateTable latestStreaming() {
+        return RatesJsonDecoder.decodeLatest(latest);
+    }
+
+    // Retained heap per decode: the model is what the store holds until the next refresh, and on the
+    // tree path the Map tree is still reachable while fromResponse copies out of it, so tree plus
+    // model is that path's peak. The streaming path never holds a tree; its only transient is the
+    // builder's growing column arrays.
+    public static void main(String[] args) {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        for (int days : new int[]{30, 730}) {
+            byte[] body = StubFrankfurter.historyJson(days).getBytes(StandardCharsets.UTF_8);
+            report("history, " + days + " days", retainedBytes(() -> jsonMapper.readValue(body, Map.class)),
+                    retainedBytes(() -> HistoricalRates.fromResponse(jsonMapper.readValue(body, Map.class))),
+                    retainedBytes(() -> RatesJsonDecoder.decodeHistorical(body)));
+        }
+        byte[] body = StubFrankfurter.latestJson().getBytes(StandardCharsets.UTF_8);
+        report("latest", retainedBytes(() -> jsonMapper.readValue(body, Map.class)),
+                retainedBytes(() -> RateTable.fromResponse(jsonMapper.readValue(body, Map.class))),
+                retainedBytes(() -> RatesJsonDecoder.decodeLatest(body)));
+    }
+
+    private static void report(String body, long tree, long treeModel, long streamingModel) {
+        System.out.printf("%-18s tree peak %,9d B (map %,9d + model %,9d), streaming model %,9d B%n",
+                body, tree + treeModel, tree, treeModel, streamingModel);
+    }
+
+    // keeps COPIES results reachable and divides the heap growth after full collections by them;
+    // the median of a few rounds, since anything else allocating in the JVM shows up as well
+    private static long retainedBytes(Supplier<Object> decode) {
+        decode.get();
+        long[] rounds = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            Object[] kept = new Object[COPIES];
+            long before = usedHeapAfterGc();
+            for (int i = 0; i < COPIES; i++) {
+                kept[i] = decode.get();
+            }
+            long after = usedHeapAfterGc();
+            Reference.reachabilityFence(kept);
+            rounds[round] = (after - before) / COPIES;
+        }
+        Arrays.sort(rounds);
+        return rounds[ROUNDS / 2];
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -1,27 +1,71 @@
 package com.example.allotest.config;
 
+import io.netty.channel.ChannelOption;
 import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Component
-public class ApiClientFactoryBean implements FactoryBean<WebClient> {
-    @Value("${frankfurter.api.base-url}")
-    private String baseUrl;
+public class ApiClientFactoryBean implements FactoryBean<WebClient>, DisposableBean {
+    private final ObjectProvider<FrankfurterProperties> propertiesProvider;
+    private ConnectionProvider connectionProvider;
+
+    // the properties are looked up lazily because factory beans get instantiated early for type
+    // matching, before configuration properties are bound
+    public ApiClientFactoryBean(ObjectProvider<FrankfurterProperties> propertiesProvider) {
+        this.propertiesProvider = propertiesProvider;
+    }
 
     @Override
     public @Nullable WebClient getObject() {
+        FrankfurterProperties properties = propertiesProvider.getObject();
         return WebClient
                 .builder()
-                .baseUrl(baseUrl)
+                .baseUrl(properties.getBaseUrl())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .clientConnector(new ReactorClientHttpConnector(httpClient(properties)))
+                .codecs(codecs -> codecs.defaultCodecs()
+                        .maxInMemorySize((int) properties.getMaxInMemorySize().toBytes()))
                 .build();
     }
 
+    // one bounded pool shared by every fetcher, so a burst of refreshes reuses warm connections and
+    // waits briefly for a free one instead of opening a new socket per call
+    HttpClient httpClient(FrankfurterProperties properties) {
+        FrankfurterProperties.Pool pool = properties.getPool();
+        connectionProvider = ConnectionProvider.builder("frankfurter")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInterval())
+                .metrics(pool.isMetrics())
+                .build();
+
+        HttpClient client = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout())
+                .keepAlive(properties.isKeepAlive())
+                .compress(properties.isCompression());
+        // HTTP/2 is negotiated through ALPN, so it only applies to https; plain http stays on HTTP/1.1
+        // secure() with no spec builds the default client context for the configured protocols, ALPN included
+        if (properties.isHttp2() && properties.getBaseUrl().startsWith("https")) {
+            client = client
+                    .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    .secure();
+        }
+        return client;
+    }
+
     @Override
     public @Nullable Class<?> getObjectType() {
         return WebClient.class;
@@ -31,4 +75,11 @@ public class ApiClientFactoryBean implements FactoryBean<WebClient> {
     public boolean isSingleton() {
         return true;
     }
+
+    @Override
+    public void destroy() {
+        if (connectionProvider != null) {
+            connectionProvider.disposeLater().block();
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "fetch.circuit-breaker")
+public class CircuitBreakerProperties {
+    private int failureThreshold = 3;
+    private Duration openDuration = Duration.ofSeconds(30);
+    private Duration maxOpenDuration = Duration.ofMinutes(10);
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public Duration getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Duration openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public Duration getMaxOpenDuration() {
+        return maxOpenDuration;
+    }
+
+    public void setMaxOpenDuration(Duration maxOpenDuration) {
+        this.maxOpenDuration = maxOpenDuration;
+    }
+}
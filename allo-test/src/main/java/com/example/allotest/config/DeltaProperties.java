@@ -0,0 +1,16 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "data.delta")
+public class DeltaProperties {
+    private int history = 16;
+
+    public int getHistory() {
+        return history;
+    }
+
+    public void setHistory(int history) {
+        this.history = history;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.allotest.config;
+
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class ObservationConfig {
+    static final String RESOURCE_TYPE_KEY = "resourceType";
+    static final String NO_RESOURCE_TYPE = "none";
+
+    // http.server.requests only carries the URI template, so every data resource would share one
+    // latency distribution; the resourceType path variable is added as a tag, limited to the
+    // registered fetchers so unknown paths cannot grow the number of time series
+    @Bean
+    public DefaultServerRequestObservationConvention servletRequestObservationConvention(Map<String, IDataFetcher> strategies) {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object variables = context.getCarrier().getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context).and(resourceType(variables, strategies));
+            }
+        };
+    }
+
+    @Bean
+    public org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention reactiveRequestObservationConvention(
+            Map<String, IDataFetcher> strategies) {
+        return new org.springframework.http.server.reactive.observation.DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(
+                    org.springframework.http.server.reactive.observation.ServerRequestObservationContext context) {
+                Object variables = context.getAttributes()
+                        .get(org.springframework.web.reactive.HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                return super.getLowCardinalityKeyValues(context).and(resourceType(variables, strategies));
+            }
+        };
+    }
+
+    static KeyValue resourceType(Object uriVariables, Map<String, IDataFetcher> strategies) {
+        if (uriVariables instanceof Map<?, ?> variables
+                && variables.get(RESOURCE_TYPE_KEY) instanceof String resourceType
+                && strategies.containsKey(resourceType)) {
+            return KeyValue.of(RESOURCE_TYPE_KEY, resourceType);
+        }
+        return KeyValue.of(RESOURCE_TYPE_KEY, NO_RESOURCE_TYPE);
+    }
+}
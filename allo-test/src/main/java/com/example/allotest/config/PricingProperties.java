@@ -0,0 +1,20 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "pricing")
+public class PricingProperties {
+    // spread factor per currency code; currencies not listed use the one derived from github.username
+    private Map<String, Double> spreads = new HashMap<>();
+
+    public Map<String, Double> getSpreads() {
+        return spreads;
+    }
+
+    public void setSpreads(Map<String, Double> spreads) {
+        this.spreads = spreads;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "query.cache")
+public class QueryCacheProperties {
+    private boolean enabled = true;
+    private DataSize maxWeight = DataSize.ofMegabytes(32);
+    private Duration defaultTtl = Duration.ofMinutes(10);
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    public Duration ttlFor(String resourceType) {
+        return ttl.getOrDefault(resourceType, defaultTtl);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(DataSize maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<String, Duration> getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Map<String, Duration> ttl) {
+        this.ttl = ttl;
+    }
+}
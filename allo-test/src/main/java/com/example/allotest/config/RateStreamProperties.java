@@ -0,0 +1,36 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "stream.rates")
+public class RateStreamProperties {
+    private Duration heartbeat = Duration.ofSeconds(15);
+    private int replay = 16;
+    private Duration timeout = Duration.ofHours(1);
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public int getReplay() {
+        return replay;
+    }
+
+    public void setReplay(int replay) {
+        this.replay = replay;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "data.refresh")
+public class RefreshProperties {
+    private boolean enabled = true;
+    private Duration defaultInterval = Duration.ofMinutes(10);
+    private Map<String, Duration> intervals = new HashMap<>();
+
+    public Duration intervalFor(String resourceType) {
+        return intervals.getOrDefault(resourceType, defaultInterval);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getDefaultInterval() {
+        return defaultInterval;
+    }
+
+    public void setDefaultInterval(Duration defaultInterval) {
+        this.defaultInterval = defaultInterval;
+    }
+
+    public Map<String, Duration> getIntervals() {
+        return intervals;
+    }
+
+    public void setIntervals(Map<String, Duration> intervals) {
+        this.intervals = intervals;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.allotest.config;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ThreadingConfig {
+
+    // spring.threads.virtual.enabled (only honoured on JDK 21+) already moves Tomcat request handling
+    // onto virtual threads; the threads that block on upstream fetches follow the same switch
+    @Bean
+    public ThreadFactory fetchThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("data-refresh-").getVirtualThreadFactory();
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "data-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -4,9 +4,15 @@ public class ApiResponseConstants {
     public static final String OK_STATUS_CODE = "200";
     public static final String OK_STATUS_MESSAGE = "Request Processed Successfully";
 
+    public static final String BAD_REQUEST_STATUS_CODE = "400";
+    public static final String BAD_REQUEST_STATUS_MESSAGE = "Bad Request";
+
     public static final String NOT_FOUND_STATUS_CODE = "404";
     public static final String NOT_FOUND_STATUS_MESSAGE = "Not Found";
 
     public static final String INTERNAL_SERVER_ERROR_STATUS_CODE = "500";
+    public static final String SERVICE_UNAVAILABLE_STATUS_CODE = "503";
+    public static final String SERVICE_UNAVAILABLE_STATUS_MESSAGE = "The upstream service is unavailable. Please retry later";
+
     public static final String INTERNAL_SERVER_ERROR_STATUS_MESSAGE = "An error occurred. Please try again or contact your administrator";
 }
@@ -0,0 +1,7 @@
+package com.example.allotest.constants;
+
+public class FetchParamConstants {
+    public static final String START_DATE = "start";
+    public static final String END_DATE = "end";
+    public static final String TO_CURRENCY = "to";
+}
@@ -0,0 +1,15 @@
+package com.example.allotest.constants;
+
+public class ResourceTypeConstants {
+    public static final String LATEST_IDR_RATES = "latest_idr_rates";
+    public static final String HISTORICAL_IDR_USD = "historical_idr_usd";
+    public static final String SUPPORTED_CURRENCIES = "supported_currencies";
+    public static final String HISTORICAL_IDR_SERIES = "historical_idr_series";
+    public static final String LATEST_RATES = "latest_rates";
+    public static final String LATEST_IDR_PRICES = "latest_idr_prices";
+
+    public static final String CONVERT = "convert";
+    public static final String HISTORICAL = "historical";
+    public static final String BATCH = "batch";
+    public static final String ANALYTICS = "analytics";
+}
@@ -1,42 +1,336 @@
 package com.example.allotest.controller;
 
-import com.example.allotest.constants.ApiResponseConstants;
-import com.example.allotest.dtos.BaseResponseDto;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.dtos.RateDeltaDto;
 import com.example.allotest.exceptions.NoPathAvailableException;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.CrossRates;
+import com.example.allotest.store.DataSnapshot;
 import com.example.allotest.store.DataStore;
+import com.example.allotest.store.LatestPrices;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResourceEntry;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.store.SerializedResponse;
 import com.example.allotest.strategy.IDataFetcher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 public class ApiClientController {
+    static final String DATA_STALE_HEADER = "X-Data-Stale";
+    static final String DATA_VERSION_HEADER = "X-Data-Version";
     private final DataStore store;
     private final Map<String, IDataFetcher> strategies;
+    private final ResponseSerializer serializer;
+    private final RefreshProperties refreshProperties;
+    private final RateHistory rateHistory;
+    private final CrossRates crossRates;
+    private final LatestPrices latestPrices;
 
     public ApiClientController(DataStore store,
-                               Map<String, IDataFetcher> strategies) {
+                               Map<String, IDataFetcher> strategies,
+                               ResponseSerializer serializer,
+                               RefreshProperties refreshProperties,
+                               RateHistory rateHistory,
+                               CrossRates crossRates,
+                               LatestPrices latestPrices) {
         this.store = store;
         this.strategies = strategies;
+        this.serializer = serializer;
+        this.refreshProperties = refreshProperties;
+        this.rateHistory = rateHistory;
+        this.crossRates = crossRates;
+        this.latestPrices = latestPrices;
     }
 
     @GetMapping("/api/finance/data/{resourceType}")
-    public ResponseEntity<BaseResponseDto<Object[]>> getData(@PathVariable String resourceType) {
+    public ResponseEntity<byte[]> getData(@PathVariable String resourceType,
+                                          @RequestParam(required = false) String since,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         if (strategies.get(resourceType) == null) {
             throw new NoPathAvailableException("unknown path: " + resourceType, resourceType);
         }
+        Long sinceVersion = parseSince(resourceType, since);
 
-        Object[] data = store.getFromStore(resourceType);
+        // the body was serialized when the snapshot was published, so only resources that never
+        // loaded are serialized on the request path
+        MediaType mediaType = negotiate(accept);
+        ResourceEntry entry = store.getEntry(resourceType);
+        if (entry == null) {
+            return notLoaded(resourceType, mediaType);
+        }
+        SerializedResponse response = sinceVersion == null ? entry.getResponse() : deltaOrFull(resourceType, entry, sinceVersion);
+        return serve(resourceType, entry, response, mediaType, acceptEncoding);
+    }
+
+    // the latest rates against any currency in the IDR table, each base answered from its own row of
+    // the cross-rate matrix, serialized when latest_idr_rates was published; freshness, stale flag and
+    // version are those of latest_idr_rates
+    @GetMapping("/api/finance/data/" + ResourceTypeConstants.LATEST_RATES)
+    public ResponseEntity<byte[]> getLatestRates(@RequestParam(defaultValue = "IDR") String base,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MediaType mediaType = negotiate(accept);
+        ResourceEntry entry = store.getEntry(ResourceTypeConstants.LATEST_IDR_RATES);
+        if (entry == null) {
+            return notLoaded(ResourceTypeConstants.LATEST_RATES, mediaType);
+        }
+        SerializedResponse row = crossRates.rowFor(entry, base.trim().toUpperCase(Locale.ROOT));
+        if (row == null) {
+            throw new InvalidParameterException("unsupported base currency: " + base, ResourceTypeConstants.LATEST_RATES);
+        }
+        return serve(ResourceTypeConstants.LATEST_IDR_RATES, entry, row, mediaType, acceptEncoding);
+    }
+
+    // buy and sell prices of every currency in the IDR table, priced and serialized when
+    // latest_idr_rates was published; freshness, stale flag and version are those of latest_idr_rates
+    @GetMapping("/api/finance/data/" + ResourceTypeConstants.LATEST_IDR_PRICES)
+    public ResponseEntity<byte[]> getLatestPrices(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MediaType mediaType = negotiate(accept);
+        ResourceEntry entry = store.getEntry(ResourceTypeConstants.LATEST_IDR_RATES);
+        SerializedResponse prices = entry == null ? null : latestPrices.responseFor(entry);
+        if (prices == null) {
+            return notLoaded(ResourceTypeConstants.LATEST_IDR_PRICES, mediaType);
+        }
+        return serve(ResourceTypeConstants.LATEST_IDR_RATES, entry, prices, mediaType, acceptEncoding);
+    }
+
+    // one envelope for several resources, read from a single snapshot so a dashboard never combines
+    // rates from one refresh with currencies from another
+    @GetMapping("/api/finance/data")
+    public ResponseEntity<byte[]> getBatch(@RequestParam String types,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Set<String> resourceTypes = new LinkedHashSet<>();
+        for (String type : types.split(",")) {
+            String resourceType = type.trim();
+            if (resourceType.isEmpty()) {
+                continue;
+            }
+            if (strategies.get(resourceType) == null) {
+                throw new NoPathAvailableException("unknown path: " + resourceType, resourceType);
+            }
+            resourceTypes.add(resourceType);
+        }
+        if (resourceTypes.isEmpty()) {
+            throw new InvalidParameterException("types must name at least one resource", ResourceTypeConstants.BATCH);
+        }
+
+        DataSnapshot snapshot = store.getSnapshot(resourceTypes);
+        // stale flags live outside the snapshot, so they are read once and the body, its ETag and the
+        // header all describe the same set even when a refresh finishes meanwhile
+        Set<String> stale = new HashSet<>();
+        for (String resourceType : resourceTypes) {
+            if (snapshot.getEntry(resourceType) != null && store.isStale(resourceType)) {
+                stale.add(resourceType);
+            }
+        }
+        List<String> requested = List.copyOf(resourceTypes);
+        SerializedResponse response = serializer.serializeBatch(snapshot, requested, stale);
+        // negotiated like a single resource; the entries' ages and refresh intervals differ, so the
+        // body is only ever revalidated
+        MediaType mediaType = negotiate(accept);
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(mediaType)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .header(DATA_STALE_HEADER, Boolean.toString(!stale.isEmpty()));
+        if (!isJson(mediaType)) {
+            return builder
+                    .eTag(response.getEtag(mediaType))
+                    .body(serializer.encodeBatch(snapshot, requested, stale, response, mediaType));
+        }
+        if (acceptsGzip(acceptEncoding)) {
+            return builder
+                    .eTag(response.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(response.getGzip());
+        }
+        return builder
+                .eTag(response.getEtag())
+                .body(response.getJson());
+    }
+
+    private ResponseEntity<byte[]> notLoaded(String resourceType, MediaType mediaType) {
+        SerializedResponse empty = serializer.serialize(resourceType, null);
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(new BaseResponseDto<>(
-                        ApiResponseConstants.OK_STATUS_CODE,
-                        ApiResponseConstants.OK_STATUS_MESSAGE,
-                        resourceType,
-                        data));
+                .contentType(mediaType)
+                .cacheControl(CacheControl.noCache())
+                .body(isJson(mediaType) ? empty.getJson() : serializer.encode(empty, mediaType));
+    }
+
+    // a matching If-None-Match is turned into a bodiless 304 by Spring once the ETag is set; when the
+    // last refresh failed the previous data is still served, with its age and a stale flag
+    private ResponseEntity<byte[]> serve(String resourceType, ResourceEntry entry, SerializedResponse response,
+                                         MediaType mediaType, String acceptEncoding) {
+        boolean stale = store.isStale(resourceType);
+        ResponseEntity.BodyBuilder builder = ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(mediaType)
+                .cacheControl(stale ? CacheControl.maxAge(Duration.ZERO) : cacheControlFor(resourceType, entry))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.AGE, Long.toString(ageOf(entry).toSeconds()))
+                .header(DATA_STALE_HEADER, Boolean.toString(stale))
+                .header(DATA_VERSION_HEADER, Long.toString(entry.getVersion()));
+        if (!isJson(mediaType)) {
+            return builder
+                    .eTag(response.getEtag(mediaType))
+                    .body(serializer.encode(response, mediaType));
+        }
+        if (acceptsGzip(acceptEncoding)) {
+            return builder
+                    .eTag(response.getGzipEtag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(response.getGzip());
+        }
+        return builder
+                .eTag(response.getEtag())
+                .body(response.getJson());
+    }
+
+    // parsed here rather than bound as a Long, so a bad value is reported against the resource in the
+    // path, which the exception handler cannot see on either web stack
+    private static Long parseSince(String resourceType, String since) {
+        if (since == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(since.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidParameterException("invalid value for since: " + since, resourceType);
+        }
+    }
+
+    // a client that sends the X-Data-Version it last saw as since gets only the rates that changed
+    // after it, serialized once per since and kept next to the history; anything the history cannot
+    // answer gets the full, pre-serialized payload
+    private SerializedResponse deltaOrFull(String resourceType, ResourceEntry entry, long since) {
+        RateTable current = RateHistory.rateTable(entry);
+        if (!ResourceTypeConstants.LATEST_IDR_RATES.equals(resourceType) || current == null
+                || since < 0 || since > store.getSnapshot().getVersion()) {
+            return entry.getResponse();
+        }
+        RateTable base = rateHistory.tableAt(since);
+        if (base == null) {
+            return entry.getResponse();
+        }
+        SerializedResponse delta = rateHistory.cachedDelta(since, entry.getVersion());
+        if (delta == null) {
+            delta = serializer.serialize(resourceType, new Object[]{new RateDeltaDto(
+                    since, entry.getVersion(), current.getDate(), current.getBase(), current.changesFrom(base))});
+            rateHistory.cacheDelta(since, entry.getVersion(), delta);
+        }
+        return delta;
+    }
+
+    // clients may reuse the body until the next scheduled refresh of the resource is due
+    private CacheControl cacheControlFor(String resourceType, ResourceEntry entry) {
+        Duration interval = refreshProperties.intervalFor(resourceType);
+        Duration remaining = interval.minus(ageOf(entry));
+        return CacheControl.maxAge(remaining.isNegative() ? Duration.ZERO : remaining);
+    }
+
+    private static Duration ageOf(ResourceEntry entry) {
+        Duration age = Duration.between(entry.getFetchedAt(), Instant.now());
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+
+    // JSON unless the client prefers one of the binary encodings; the first listed type wins a tie,
+    // and a header that cannot be parsed is treated as no preference
+    private MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MediaType best = MediaType.APPLICATION_JSON;
+        double bestQuality = -1;
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() <= bestQuality) {
+                continue;
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                best = MediaType.APPLICATION_JSON;
+                bestQuality = type.getQualityValue();
+                continue;
+            }
+            for (MediaType binary : serializer.getBinaryTypes()) {
+                if (type.includes(binary)) {
+                    best = binary;
+                    bestQuality = type.getQualityValue();
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        return MediaType.APPLICATION_JSON.equals(mediaType);
+    }
+
+    // gzip counts as accepted when it is listed, or covered by *, with a non-zero q-value; an explicit
+    // gzip entry wins over the wildcard, so "gzip;q=0, *" still refuses it
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = qualityOf(parts);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality);
+            } else if (name.equals("*")) {
+                wildcard = Math.max(wildcard, quality);
+            }
+        }
+        return (gzip >= 0 ? gzip : wildcard) > 0;
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
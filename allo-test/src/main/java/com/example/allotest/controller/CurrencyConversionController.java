@@ -0,0 +1,35 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import com.example.allotest.dtos.ConversionResponseDto;
+import com.example.allotest.service.ICurrencyConversionService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class CurrencyConversionController {
+    private final ICurrencyConversionService conversionService;
+
+    public CurrencyConversionController(ICurrencyConversionService conversionService) {
+        this.conversionService = conversionService;
+    }
+
+    @GetMapping("/api/finance/convert")
+    public ResponseEntity<BaseResponseDto<ConversionResponseDto>> convert(@RequestParam String from,
+                                                                          @RequestParam String to,
+                                                                          @RequestParam double amount,
+                                                                          @RequestParam(defaultValue = "false") boolean spread) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new BaseResponseDto<>(
+                        ApiResponseConstants.OK_STATUS_CODE,
+                        ApiResponseConstants.OK_STATUS_MESSAGE,
+                        ResourceTypeConstants.CONVERT,
+                        conversionService.convert(from, to, amount, spread)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import com.example.allotest.dtos.OhlcDto;
+import com.example.allotest.dtos.RollingStatsDto;
+import com.example.allotest.service.IHistoricalAnalyticsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class HistoricalAnalyticsController {
+    private final IHistoricalAnalyticsService analyticsService;
+
+    public HistoricalAnalyticsController(IHistoricalAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    @GetMapping("/api/finance/analytics/{currency}/moving-average")
+    public ResponseEntity<BaseResponseDto<RollingStatsDto>> getMovingAverage(@PathVariable String currency,
+                                                                             @RequestParam(defaultValue = "20") int window,
+                                                                             @RequestParam(required = false) String from,
+                                                                             @RequestParam(required = false) String to) {
+        return ok(analyticsService.getMovingAverage(currency, window, from, to));
+    }
+
+    @GetMapping("/api/finance/analytics/{currency}/volatility")
+    public ResponseEntity<BaseResponseDto<RollingStatsDto>> getVolatility(@PathVariable String currency,
+                                                                          @RequestParam(defaultValue = "20") int window,
+                                                                          @RequestParam(required = false) String from,
+                                                                          @RequestParam(required = false) String to) {
+        return ok(analyticsService.getVolatility(currency, window, from, to));
+    }
+
+    @GetMapping("/api/finance/analytics/{currency}/ohlc")
+    public ResponseEntity<BaseResponseDto<OhlcDto>> getOhlc(@PathVariable String currency,
+                                                            @RequestParam(defaultValue = "week") String period,
+                                                            @RequestParam(required = false) String from,
+                                                            @RequestParam(required = false) String to) {
+        return ok(analyticsService.getOhlc(currency, period, from, to));
+    }
+
+    private static <T> ResponseEntity<BaseResponseDto<T>> ok(T data) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new BaseResponseDto<>(
+                        ApiResponseConstants.OK_STATUS_CODE,
+                        ApiResponseConstants.OK_STATUS_MESSAGE,
+                        ResourceTypeConstants.ANALYTICS,
+                        data));
+    }
+}
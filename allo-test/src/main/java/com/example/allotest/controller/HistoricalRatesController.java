@@ -0,0 +1,50 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import com.example.allotest.dtos.HistoricalAsOfDto;
+import com.example.allotest.dtos.HistoricalRangeDto;
+import com.example.allotest.service.IHistoricalRatesService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class HistoricalRatesController {
+    private final IHistoricalRatesService historicalRatesService;
+
+    public HistoricalRatesController(IHistoricalRatesService historicalRatesService) {
+        this.historicalRatesService = historicalRatesService;
+    }
+
+    @GetMapping("/api/finance/historical/{currency}")
+    public Mono<ResponseEntity<BaseResponseDto<HistoricalRangeDto>>> getRange(@PathVariable String currency,
+                                                                              @RequestParam(required = false) String from,
+                                                                              @RequestParam(required = false) String to) {
+        return historicalRatesService.getRange(currency, from, to)
+                .map(range -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(new BaseResponseDto<>(
+                                ApiResponseConstants.OK_STATUS_CODE,
+                                ApiResponseConstants.OK_STATUS_MESSAGE,
+                                ResourceTypeConstants.HISTORICAL,
+                                range)));
+    }
+
+    @GetMapping("/api/finance/historical/{currency}/as-of")
+    public ResponseEntity<BaseResponseDto<HistoricalAsOfDto>> getAsOf(@PathVariable String currency,
+                                                                      @RequestParam String date) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new BaseResponseDto<>(
+                        ApiResponseConstants.OK_STATUS_CODE,
+                        ApiResponseConstants.OK_STATUS_MESSAGE,
+                        ResourceTypeConstants.HISTORICAL,
+                        historicalRatesService.getAsOf(currency, date)));
+    }
+}
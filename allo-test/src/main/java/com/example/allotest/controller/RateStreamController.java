@@ -0,0 +1,24 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.service.RateUpdateStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+public class RateStreamController {
+    private final RateUpdateStream rateUpdateStream;
+
+    public RateStreamController(RateUpdateStream rateUpdateStream) {
+        this.rateUpdateStream = rateUpdateStream;
+    }
+
+    // a "snapshot" event with all current rates, then an "update" event with the rates that moved
+    // whenever a refresh changes them; the event id is the store snapshot version
+    @GetMapping(value = "/api/finance/stream/latest_idr_rates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamLatestRates() {
+        return rateUpdateStream.subscribe();
+    }
+}
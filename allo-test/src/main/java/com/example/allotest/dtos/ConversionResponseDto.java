@@ -0,0 +1,50 @@
+package com.example.allotest.dtos;
+
+public class ConversionResponseDto {
+    private final String from;
+    private final String to;
+    private final double amount;
+    private final double rate;
+    private final double result;
+    private final boolean spreadApplied;
+    private final String date;
+
+    public ConversionResponseDto(String from, String to, double amount, double rate, double result,
+                                 boolean spreadApplied, String date) {
+        this.from = from;
+        this.to = to;
+        this.amount = amount;
+        this.rate = rate;
+        this.result = result;
+        this.spreadApplied = spreadApplied;
+        this.date = date;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public double getResult() {
+        return result;
+    }
+
+    public boolean isSpreadApplied() {
+        return spreadApplied;
+    }
+
+    public String getDate() {
+        return date;
+    }
+}
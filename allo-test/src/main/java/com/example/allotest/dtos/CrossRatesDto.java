@@ -0,0 +1,52 @@
+package com.example.allotest.dtos;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Map;
+
+@JsonPropertyOrder({"amount", "base", "date", "rates"})
+public class CrossRatesDto {
+    private double amount;
+    private String base;
+    private String date;
+    private Map<String, Double> rates;
+
+    public CrossRatesDto(double amount, String base, String date, Map<String, Double> rates) {
+        this.amount = amount;
+        this.base = base;
+        this.date = date;
+        this.rates = rates;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public Map<String, Double> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, Double> rates) {
+        this.rates = rates;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.allotest.dtos;
+
+public class HistoricalAsOfDto {
+    private final String base;
+    private final String currency;
+    private final String requestedDate;
+    private final String date;
+    private final double rate;
+
+    public HistoricalAsOfDto(String base, String currency, String requestedDate, String date, double rate) {
+        this.base = base;
+        this.currency = currency;
+        this.requestedDate = requestedDate;
+        this.date = date;
+        this.rate = rate;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getRequestedDate() {
+        return requestedDate;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.allotest.dtos;
+
+public class HistoricalRangeDto {
+    private final String base;
+    private final String currency;
+    private final String startDate;
+    private final String endDate;
+    private final String[] dates;
+    private final double[] rates;
+
+    public HistoricalRangeDto(String base, String currency, String startDate, String endDate,
+                              String[] dates, double[] rates) {
+        this.base = base;
+        this.currency = currency;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.dates = dates;
+        this.rates = rates;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStartDate() {
+        return startDate;
+    }
+
+    public String getEndDate() {
+        return endDate;
+    }
+
+    public String[] getDates() {
+        return dates;
+    }
+
+    public double[] getRates() {
+        return rates;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.allotest.dtos;
+
+public class OhlcDto {
+    private final String base;
+    private final String currency;
+    private final String period;
+    private final String[] periodStarts;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+
+    public OhlcDto(String base, String currency, String period, String[] periodStarts,
+                   double[] open, double[] high, double[] low, double[] close) {
+        this.base = base;
+        this.currency = currency;
+        this.period = period;
+        this.periodStarts = periodStarts;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public String[] getPeriodStarts() {
+        return periodStarts;
+    }
+
+    public double[] getOpen() {
+        return open;
+    }
+
+    public double[] getHigh() {
+        return high;
+    }
+
+    public double[] getLow() {
+        return low;
+    }
+
+    public double[] getClose() {
+        return close;
+    }
+}
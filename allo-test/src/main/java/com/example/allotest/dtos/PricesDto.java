@@ -0,0 +1,43 @@
+package com.example.allotest.dtos;
+
+import com.example.allotest.model.PriceTable;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Map;
+
+@JsonPropertyOrder({"base", "date", "prices"})
+public class PricesDto {
+    private String base;
+    private String date;
+    private Map<String, PriceTable.Quote> prices;
+
+    public PricesDto(String base, String date, Map<String, PriceTable.Quote> prices) {
+        this.base = base;
+        this.date = date;
+        this.prices = prices;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public Map<String, PriceTable.Quote> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(Map<String, PriceTable.Quote> prices) {
+        this.prices = prices;
+    }
+}
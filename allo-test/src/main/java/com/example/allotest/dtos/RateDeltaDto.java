@@ -0,0 +1,59 @@
+package com.example.allotest.dtos;
+
+import java.util.Map;
+
+public class RateDeltaDto {
+    private long since;
+    private long version;
+    private String date;
+    private String base;
+    private Map<String, Double> rates;
+
+    public RateDeltaDto(long since, long version, String date, String base, Map<String, Double> rates) {
+        this.since = since;
+        this.version = version;
+        this.date = date;
+        this.base = base;
+        this.rates = rates;
+    }
+
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public void setBase(String base) {
+        this.base = base;
+    }
+
+    public Map<String, Double> getRates() {
+        return rates;
+    }
+
+    public void setRates(Map<String, Double> rates) {
+        this.rates = rates;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.allotest.dtos;
+
+public class RollingStatsDto {
+    private final String base;
+    private final String currency;
+    private final String metric;
+    private final int window;
+    private final String[] dates;
+    private final double[] values;
+
+    public RollingStatsDto(String base, String currency, String metric, int window, String[] dates, double[] values) {
+        this.base = base;
+        this.currency = currency;
+        this.metric = metric;
+        this.window = window;
+        this.dates = dates;
+        this.values = values;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public String[] getDates() {
+        return dates;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+}
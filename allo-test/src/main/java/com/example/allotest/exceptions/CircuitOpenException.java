@@ -0,0 +1,23 @@
+package com.example.allotest.exceptions;
+
+import java.time.Duration;
+
+public class CircuitOpenException extends RuntimeException {
+    private final String resourceType;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String message, String resourceType, Duration retryAfter) {
+        super(message);
+        this.resourceType = resourceType;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    // how long until the breaker lets its next probe through
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.allotest.exceptions;
 
 import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
 import com.example.allotest.dtos.BaseResponseDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
 import org.springframework.context.MessageSource;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -27,6 +36,19 @@ public class GlobalExceptionHandler {
                         ApiResponseConstants.INTERNAL_SERVER_ERROR_STATUS_MESSAGE, ex.getResourceType(), ex.getMessage()));
     }
 
+    // upstream is known to be down, so the client is told when the breaker lets the next call through
+    // instead of getting a generic 500
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<BaseResponseDto<String>> handleCircuitOpen(CircuitOpenException ex) {
+        logger.error(messageSource.getMessage("error.occured", new String[]{ex.getMessage()}, null));
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(new BaseResponseDto<>(ApiResponseConstants.SERVICE_UNAVAILABLE_STATUS_CODE,
+                        ApiResponseConstants.SERVICE_UNAVAILABLE_STATUS_MESSAGE, ex.getResourceType(), ex.getMessage()));
+    }
+
     @ExceptionHandler(NoPathAvailableException.class)
     public ResponseEntity<BaseResponseDto<String>> handleNoPathAvailable(NoPathAvailableException ex) {
         logger.error(messageSource.getMessage("error.occured", new String[]{ex.getMessage()}, null));
@@ -36,4 +58,55 @@ public class GlobalExceptionHandler {
                         ApiResponseConstants.NOT_FOUND_STATUS_MESSAGE, ex.getResourceType(), ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<BaseResponseDto<String>> handleInvalidParameter(InvalidParameterException ex) {
+        logger.error(messageSource.getMessage("error.occured", new String[]{ex.getMessage()}, null));
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new BaseResponseDto<>(ApiResponseConstants.BAD_REQUEST_STATUS_CODE,
+                        ApiResponseConstants.BAD_REQUEST_STATUS_MESSAGE, ex.getResourceType(), ex.getMessage()));
+    }
+
+    // a query parameter that cannot be converted (amount=abc, window=x) gets the same 400 envelope as
+    // the checks the services make themselves. MVC and WebFlux report it with different exceptions,
+    // but both carry the controller method parameter, and its mapping names the resource.
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<BaseResponseDto<String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return handleInvalidParameter(new InvalidParameterException(
+                "invalid value for " + ex.getName() + ": " + ex.getValue(), resourceTypeOf(ex.getParameter())));
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<BaseResponseDto<String>> handleServerWebInput(ServerWebInputException ex) {
+        MethodParameter parameter = ex.getMethodParameter();
+        String message = parameter != null && ex.getCause() instanceof TypeMismatchException mismatch
+                ? "invalid value for " + nameOf(parameter) + ": " + mismatch.getValue()
+                : ex.getReason();
+        return handleInvalidParameter(new InvalidParameterException(message, resourceTypeOf(parameter)));
+    }
+
+    private static String nameOf(MethodParameter parameter) {
+        RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+        return requestParam != null && !requestParam.name().isEmpty() ? requestParam.name() : parameter.getParameterName();
+    }
+
+    static String resourceTypeOf(MethodParameter parameter) {
+        RequestMapping mapping = parameter == null ? null
+                : AnnotatedElementUtils.findMergedAnnotation(parameter.getExecutable(), RequestMapping.class);
+        return mapping == null || mapping.path().length == 0 ? null : resourceTypeOf(mapping.path()[0]);
+    }
+
+    // /api/finance/data/{name} names its resource; the other endpoints are named by their first
+    // segment (convert, historical, analytics, ...). A templated segment names nothing.
+    static String resourceTypeOf(String path) {
+        String prefix = "/api/finance/";
+        if (path == null || !path.startsWith(prefix)) {
+            return null;
+        }
+        String[] segments = path.substring(prefix.length()).split("/");
+        String segment = segments[0].equals("data")
+                ? (segments.length > 1 ? segments[1] : ResourceTypeConstants.BATCH)
+                : segments[0];
+        return segment.startsWith("{") ? null : segment;
+    }
 }
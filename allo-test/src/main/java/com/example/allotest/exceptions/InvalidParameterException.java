@@ -0,0 +1,14 @@
+package com.example.allotest.exceptions;
+
+public class InvalidParameterException extends RuntimeException {
+    private final String resourceType;
+
+    public InvalidParameterException(String message, String resourceType) {
+        super(message);
+        this.resourceType = resourceType;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.allotest.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Every pair of currencies in one IDR rate table, the table's base included. Stored row-major in a
+// single array, so the rates for one base are a contiguous run: rates[base * size + quote] is the
+// number of quote units per one unit of base.
+public class CrossRateMatrix {
+    private final String date;
+    private final CurrencyIndex index;
+    private final double[] rates;
+
+    private CrossRateMatrix(String date, CurrencyIndex index, double[] rates) {
+        this.date = date;
+        this.index = index;
+        this.rates = rates;
+    }
+
+    // units per base are r[q] / r[b]; the table quotes per `amount` units of its own base, so that
+    // base counts as amount and every row comes out per one unit. A currency without a positive rate
+    // is left out, since it cannot be a base
+    public static CrossRateMatrix from(RateTable table) {
+        String[] codes = new String[table.size() + 1];
+        double[] perSourceBase = new double[table.size() + 1];
+        int size = 0;
+        if (table.getBase() != null && CurrencyIndex.isValidCode(table.getBase()) && !table.contains(table.getBase())) {
+            codes[size] = table.getBase();
+            perSourceBase[size++] = table.getAmount();
+        }
+        for (int i = 0; i < table.size(); i++) {
+            if (table.rateAt(i) > 0 && Double.isFinite(table.rateAt(i))) {
+                codes[size] = table.codeAt(i);
+                perSourceBase[size++] = table.rateAt(i);
+            }
+        }
+
+        double[] rates = new double[size * size];
+        for (int base = 0; base < size; base++) {
+            double baseRate = perSourceBase[base];
+            for (int quote = 0; quote < size; quote++) {
+                rates[base * size + quote] = base == quote ? 1d : perSourceBase[quote] / baseRate;
+            }
+        }
+        return new CrossRateMatrix(table.getDate(), new CurrencyIndex(Arrays.copyOf(codes, size)), rates);
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public CurrencyIndex getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean contains(String code) {
+        return index.contains(code);
+    }
+
+    // quote units per one base unit, NaN when either code is not in the matrix
+    public double rate(String base, String quote) {
+        int from = index.indexOf(base);
+        int to = index.indexOf(quote);
+        return from < 0 || to < 0 ? Double.NaN : rates[from * size() + to];
+    }
+
+    // one base's rates against every other currency, in index order and without the base itself
+    public Map<String, Double> row(int base) {
+        int size = size();
+        Map<String, Double> row = new LinkedHashMap<>(size * 2);
+        for (int quote = 0; quote < size; quote++) {
+            if (quote != base) {
+                row.put(index.codeAt(quote), rates[base * size + quote]);
+            }
+        }
+        return row;
+    }
+}
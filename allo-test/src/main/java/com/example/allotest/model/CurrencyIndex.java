@@ -0,0 +1,69 @@
+package com.example.allotest.model;
+
+import java.util.Arrays;
+
+public class CurrencyIndex {
+    private static final int ALPHABET = 26;
+    private static final int SLOTS = ALPHABET * ALPHABET * ALPHABET;
+
+    private final String[] codes;
+    private final short[] slots;
+
+    // ISO 4217 codes are three upper-case letters, so every possible code maps to its own slot and
+    // a lookup is three char reads and one array load, with no hashing or boxing
+    public CurrencyIndex(String[] codes) {
+        this.codes = codes.clone();
+        this.slots = new short[SLOTS];
+        Arrays.fill(slots, (short) -1);
+        for (int i = 0; i < this.codes.length; i++) {
+            int slot = slotOf(this.codes[i]);
+            if (slot < 0) {
+                throw new IllegalArgumentException("invalid currency code: " + this.codes[i]);
+            }
+            slots[slot] = (short) i;
+        }
+    }
+
+    public int indexOf(String code) {
+        int slot = slotOf(code);
+        return slot < 0 ? -1 : slots[slot];
+    }
+
+    public boolean contains(String code) {
+        return indexOf(code) >= 0;
+    }
+
+    public String codeAt(int index) {
+        return codes[index];
+    }
+
+    public int size() {
+        return codes.length;
+    }
+
+    public String[] codes() {
+        return codes.clone();
+    }
+
+    public static boolean isValidCode(String code) {
+        return slotOf(code) >= 0;
+    }
+
+    private static int slotOf(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int first = letter(code.charAt(0));
+        int second = letter(code.charAt(1));
+        int third = letter(code.charAt(2));
+        if ((first | second | third) < 0) {
+            return -1;
+        }
+        return (first * ALPHABET + second) * ALPHABET + third;
+    }
+
+    private static int letter(char c) {
+        int value = c - 'A';
+        return value >= 0 && value < ALPHABET ? value : -1;
+    }
+}
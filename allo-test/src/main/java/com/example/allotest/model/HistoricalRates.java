@@ -0,0 +1,191 @@
+package com.example.allotest.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@JsonPropertyOrder({"base", "startDate", "endDate", "currencies", "observations"})
+public class HistoricalRates {
+    private final String base;
+    private final CurrencyIndex index;
+    private final HistoricalSeries[] series;
+
+    public HistoricalRates(String base, HistoricalSeries[] series) {
+        this.base = base;
+        this.series = series.clone();
+        String[] codes = new String[series.length];
+        for (int i = 0; i < series.length; i++) {
+            codes[i] = series[i].getCurrency();
+        }
+        this.index = new CurrencyIndex(codes);
+    }
+
+    // upstream shape: {"base": "IDR", "rates": {"2024-01-01": {"USD": 0.000063, ...}, ...}}
+    public static HistoricalRates fromResponse(Map<?, ?> response) {
+        Builder builder = new Builder(response.get("base") instanceof String base ? base : null);
+        if (response.get("rates") instanceof Map<?, ?> rates) {
+            for (Map.Entry<?, ?> day : rates.entrySet()) {
+                if (day.getKey() instanceof String date && day.getValue() instanceof Map<?, ?> dayRates) {
+                    int epochDay = (int) LocalDate.parse(date).toEpochDay();
+                    for (Map.Entry<?, ?> rate : dayRates.entrySet()) {
+                        if (rate.getKey() instanceof String code && rate.getValue() instanceof Number value) {
+                            builder.add(code, epochDay, value.doubleValue());
+                        }
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    @JsonIgnore
+    public CurrencyIndex getIndex() {
+        return index;
+    }
+
+    // the resource endpoint only describes the window; the columns are served by range queries
+    public String getStartDate() {
+        return series.length == 0 ? null : LocalDate.ofEpochDay(firstDay()).toString();
+    }
+
+    public String getEndDate() {
+        return series.length == 0 ? null : LocalDate.ofEpochDay(lastDay()).toString();
+    }
+
+    public String[] getCurrencies() {
+        return index.codes();
+    }
+
+    public int getObservations() {
+        int total = 0;
+        for (HistoricalSeries s : series) {
+            total += s.size();
+        }
+        return total;
+    }
+
+    public HistoricalSeries series(String currency) {
+        int i = index.indexOf(currency);
+        return i < 0 ? null : series[i];
+    }
+
+    public int seriesCount() {
+        return series.length;
+    }
+
+    public HistoricalSeries seriesAt(int i) {
+        return series[i];
+    }
+
+    public int firstDay() {
+        int first = Integer.MAX_VALUE;
+        for (HistoricalSeries s : series) {
+            if (!s.isEmpty()) {
+                first = Math.min(first, s.firstDay());
+            }
+        }
+        return first;
+    }
+
+    public int lastDay() {
+        int last = Integer.MIN_VALUE;
+        for (HistoricalSeries s : series) {
+            if (!s.isEmpty()) {
+                last = Math.max(last, s.lastDay());
+            }
+        }
+        return last;
+    }
+
+    public long estimatedBytes() {
+        long total = 0;
+        for (HistoricalSeries s : series) {
+            total += s.estimatedBytes();
+        }
+        return total;
+    }
+
+    public static class Builder {
+        private String base;
+        private final Map<String, Column> columns = new LinkedHashMap<>();
+
+        public Builder(String base) {
+            this.base = base;
+        }
+
+        // a streamed body may name its base only after the rates
+        public Builder base(String base) {
+            this.base = base;
+            return this;
+        }
+
+        public Builder add(String currency, int epochDay, double rate) {
+            if (CurrencyIndex.isValidCode(currency)) {
+                columns.computeIfAbsent(currency, ignored -> new Column()).add(epochDay, rate);
+            }
+            return this;
+        }
+
+        public HistoricalRates build() {
+            List<HistoricalSeries> built = new ArrayList<>(columns.size());
+            columns.forEach((currency, column) -> built.add(column.build(currency)));
+            return new HistoricalRates(base, built.toArray(new HistoricalSeries[0]));
+        }
+    }
+
+    private static class Column {
+        private int[] days = new int[64];
+        private double[] rates = new double[64];
+        private int size;
+        private boolean sorted = true;
+
+        void add(int day, double rate) {
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            if (size > 0 && day <= days[size - 1]) {
+                sorted = false;
+            }
+            days[size] = day;
+            rates[size] = rate;
+            size++;
+        }
+
+        HistoricalSeries build(String currency) {
+            int[] sortedDays = Arrays.copyOf(days, size);
+            double[] sortedRates = Arrays.copyOf(rates, size);
+            if (!sorted) {
+                // upstream returns days in order, so this path only guards against surprises;
+                // duplicate days keep the last value seen
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> days[a] != days[b] ? Integer.compare(days[a], days[b]) : Integer.compare(a, b));
+                int n = 0;
+                for (Integer i : order) {
+                    if (n > 0 && sortedDays[n - 1] == days[i]) {
+                        n--;
+                    }
+                    sortedDays[n] = days[i];
+                    sortedRates[n] = rates[i];
+                    n++;
+                }
+                sortedDays = Arrays.copyOf(sortedDays, n);
+                sortedRates = Arrays.copyOf(sortedRates, n);
+            }
+            return new HistoricalSeries(currency, sortedDays, sortedRates);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.allotest.model;
+
+import java.util.Arrays;
+
+public class HistoricalSeries {
+    private final String currency;
+    private final int[] epochDays;
+    private final double[] rates;
+
+    // both columns are sorted by day and owned by this instance, so readers can binary search
+    // them without locking
+    public HistoricalSeries(String currency, int[] epochDays, double[] rates) {
+        if (epochDays.length != rates.length) {
+            throw new IllegalArgumentException("days and rates must have the same length");
+        }
+        for (int i = 1; i < epochDays.length; i++) {
+            if (epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("days must be strictly ascending");
+            }
+        }
+        this.currency = currency;
+        this.epochDays = epochDays;
+        this.rates = rates;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public boolean isEmpty() {
+        return epochDays.length == 0;
+    }
+
+    public int dayAt(int i) {
+        return epochDays[i];
+    }
+
+    public double rateAt(int i) {
+        return rates[i];
+    }
+
+    public int firstDay() {
+        return epochDays[0];
+    }
+
+    public int lastDay() {
+        return epochDays[epochDays.length - 1];
+    }
+
+    // index of the first day on or after the given day, size() when there is none
+    public int lowerBound(int epochDay) {
+        int i = Arrays.binarySearch(epochDays, epochDay);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    // index of the last day on or before the given day, -1 when the series starts later
+    public int floorIndex(int epochDay) {
+        int i = Arrays.binarySearch(epochDays, epochDay);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    public int[] copyDays(int from, int to) {
+        return Arrays.copyOfRange(epochDays, from, to);
+    }
+
+    public double[] copyRates(int from, int to) {
+        return Arrays.copyOfRange(rates, from, to);
+    }
+
+    public long estimatedBytes() {
+        return (long) epochDays.length * (Integer.BYTES + Double.BYTES);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.allotest.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.Map;
+
+@JsonPropertyOrder({"amount", "base", "date", "USD_BuySpread_IDR", "rates"})
+public class LatestRates {
+    private final RateTable rateTable;
+    private final double spreadFactor;
+    private final Double usdBuySpreadIdr;
+    private final PriceTable priceTable;
+
+    public LatestRates(RateTable rateTable, double spreadFactor, Double usdBuySpreadIdr) {
+        this(rateTable, spreadFactor, usdBuySpreadIdr, null);
+    }
+
+    public LatestRates(RateTable rateTable, double spreadFactor, Double usdBuySpreadIdr, PriceTable priceTable) {
+        this.rateTable = rateTable;
+        this.spreadFactor = spreadFactor;
+        this.usdBuySpreadIdr = usdBuySpreadIdr;
+        this.priceTable = priceTable;
+    }
+
+    @JsonIgnore
+    public RateTable getRateTable() {
+        return rateTable;
+    }
+
+    // kept out of the latest_idr_rates payload, which has its own shape; served as latest_idr_prices
+    @JsonIgnore
+    public PriceTable getPriceTable() {
+        return priceTable;
+    }
+
+    @JsonIgnore
+    public double getSpreadFactor() {
+        return spreadFactor;
+    }
+
+    public Double getAmount() {
+        return rateTable == null ? null : rateTable.getAmount();
+    }
+
+    public String getBase() {
+        return rateTable == null ? null : rateTable.getBase();
+    }
+
+    public String getDate() {
+        return rateTable == null ? null : rateTable.getDate();
+    }
+
+    @JsonProperty("USD_BuySpread_IDR")
+    public Double getUsdBuySpreadIdr() {
+        return usdBuySpreadIdr;
+    }
+
+    public Map<String, Double> getRates() {
+        return rateTable == null ? null : rateTable.toMap();
+    }
+}
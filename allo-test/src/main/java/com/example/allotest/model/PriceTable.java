@@ -0,0 +1,100 @@
+package com.example.allotest.model;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Buy and sell prices in base currency for one unit of every currency in a rate table, in the
+// table's order and sharing its index. A currency without a usable rate has NaN prices.
+public class PriceTable {
+    private final CurrencyIndex index;
+    private final double[] spreads;
+    private final double[] buy;
+    private final double[] sell;
+
+    public PriceTable(CurrencyIndex index, double[] spreads, double[] buy, double[] sell) {
+        if (spreads.length != index.size() || buy.length != index.size() || sell.length != index.size()) {
+            throw new IllegalArgumentException("spreads and prices must match the currency index");
+        }
+        this.index = index;
+        this.spreads = spreads;
+        this.buy = buy;
+        this.sell = sell;
+    }
+
+    public CurrencyIndex getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return buy.length;
+    }
+
+    public String codeAt(int i) {
+        return index.codeAt(i);
+    }
+
+    public double spreadAt(int i) {
+        return spreads[i];
+    }
+
+    public double buyAt(int i) {
+        return buy[i];
+    }
+
+    public double sellAt(int i) {
+        return sell[i];
+    }
+
+    public double spreadOf(String code) {
+        int i = index.indexOf(code);
+        return i < 0 ? Double.NaN : spreads[i];
+    }
+
+    public double buyOf(String code) {
+        int i = index.indexOf(code);
+        return i < 0 ? Double.NaN : buy[i];
+    }
+
+    public double sellOf(String code) {
+        int i = index.indexOf(code);
+        return i < 0 ? Double.NaN : sell[i];
+    }
+
+    // only built when the table is serialized, which happens once per publish
+    public Map<String, Quote> toMap() {
+        Map<String, Quote> map = new LinkedHashMap<>(buy.length * 2);
+        for (int i = 0; i < buy.length; i++) {
+            if (!Double.isNaN(buy[i])) {
+                map.put(index.codeAt(i), new Quote(buy[i], sell[i], spreads[i]));
+            }
+        }
+        return map;
+    }
+
+    @JsonPropertyOrder({"buy", "sell", "spread"})
+    public static class Quote {
+        private final double buy;
+        private final double sell;
+        private final double spread;
+
+        Quote(double buy, double sell, double spread) {
+            this.buy = buy;
+            this.sell = sell;
+            this.spread = spread;
+        }
+
+        public double getBuy() {
+            return buy;
+        }
+
+        public double getSell() {
+            return sell;
+        }
+
+        public double getSpread() {
+            return spread;
+        }
+    }
+}
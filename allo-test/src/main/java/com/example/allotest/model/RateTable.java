@@ -0,0 +1,130 @@
+package com.example.allotest.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RateTable {
+    private final String date;
+    private final String base;
+    private final double amount;
+    private final CurrencyIndex index;
+    private final double[] rates;
+
+    public RateTable(String date, String base, double amount, String[] codes, double[] rates) {
+        if (codes.length != rates.length) {
+            throw new IllegalArgumentException("codes and rates must have the same length");
+        }
+        this.date = date;
+        this.base = base;
+        this.amount = amount;
+        this.index = new CurrencyIndex(codes);
+        this.rates = rates.clone();
+    }
+
+    public static RateTable fromResponse(Map<?, ?> response) {
+        Object ratesValue = response.get("rates");
+        if (!(ratesValue instanceof Map<?, ?> upstreamRates)) {
+            return null;
+        }
+
+        List<String> codes = new ArrayList<>(upstreamRates.size());
+        double[] rates = new double[upstreamRates.size()];
+        for (Map.Entry<?, ?> rate : upstreamRates.entrySet()) {
+            if (rate.getKey() instanceof String code
+                    && CurrencyIndex.isValidCode(code)
+                    && rate.getValue() instanceof Number value) {
+                rates[codes.size()] = value.doubleValue();
+                codes.add(code);
+            }
+        }
+
+        Object amount = response.get("amount");
+        return new RateTable(
+                response.get("date") instanceof String date ? date : null,
+                response.get("base") instanceof String base ? base : null,
+                amount instanceof Number number ? number.doubleValue() : 1d,
+                codes.toArray(new String[0]),
+                Arrays.copyOf(rates, codes.size()));
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public CurrencyIndex getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return rates.length;
+    }
+
+    public String codeAt(int i) {
+        return index.codeAt(i);
+    }
+
+    public double rateAt(int i) {
+        return rates[i];
+    }
+
+    public int indexOf(String code) {
+        return index.indexOf(code);
+    }
+
+    public boolean contains(String code) {
+        return index.contains(code);
+    }
+
+    // units of the given currency per one unit of base; the base itself is 1 and unknown codes are NaN
+    public double rateOf(String code) {
+        int i = index.indexOf(code);
+        if (i >= 0) {
+            return rates[i];
+        }
+        return code != null && code.equals(base) ? 1d : Double.NaN;
+    }
+
+    public double[] copyRates() {
+        return rates.clone();
+    }
+
+    // the rates that differ from an earlier table, in this table's order; a code the earlier table had
+    // and this one dropped maps to null
+    public Map<String, Double> changesFrom(RateTable previous) {
+        if (previous == null) {
+            return toMap();
+        }
+        Map<String, Double> changed = new LinkedHashMap<>();
+        for (int i = 0; i < rates.length; i++) {
+            int before = previous.indexOf(index.codeAt(i));
+            if (before < 0 || Double.compare(previous.rates[before], rates[i]) != 0) {
+                changed.put(index.codeAt(i), rates[i]);
+            }
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            if (!contains(previous.codeAt(i))) {
+                changed.put(previous.codeAt(i), null);
+            }
+        }
+        return changed;
+    }
+
+    public Map<String, Double> toMap() {
+        Map<String, Double> map = new LinkedHashMap<>(rates.length * 2);
+        for (int i = 0; i < rates.length; i++) {
+            map.put(index.codeAt(i), rates[i]);
+        }
+        return map;
+    }
+}
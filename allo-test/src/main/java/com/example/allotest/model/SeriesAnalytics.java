@@ -0,0 +1,384 @@
+package com.example.allotest.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Rolling statistics and OHLC bars of one currency's daily rates, kept current as days are appended.
+// Prefix sums of the rates and of the daily log returns turn any N-day moving average or volatility
+// into two subtractions per point, and bars only ever change at the end, so a new day costs O(1)
+// whatever the window or the length of the history. Not thread-safe; callers hold their own lock.
+public class SeriesAnalytics {
+    public enum Period {
+        WEEK, MONTH
+    }
+
+    private final String currency;
+    private int[] days = new int[64];
+    private double[] rates = new double[64];
+    // prefix sums over buffer positions: sums[p] covers positions before p, so a window is sums[to] - sums[from]
+    private double[] rateSums = new double[65];
+    private double[] returnSums = new double[65];
+    private double[] squareSums = new double[65];
+    private int start;
+    private int end;
+    private final Bars weekly = new Bars(Period.WEEK);
+    private final Bars monthly = new Bars(Period.MONTH);
+
+    public SeriesAnalytics(String currency) {
+        this.currency = currency;
+    }
+
+    public static SeriesAnalytics of(HistoricalSeries series) {
+        SeriesAnalytics analytics = new SeriesAnalytics(series.getCurrency());
+        analytics.appendFrom(series, 0);
+        return analytics;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public int size() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return end == start;
+    }
+
+    public int firstDay() {
+        return days[start];
+    }
+
+    public int lastDay() {
+        return days[end - 1];
+    }
+
+    // days come in ascending order; a day without a positive rate has no log return and is skipped
+    public void append(int day, double rate) {
+        if (!(rate > 0) || rate == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        if (end > start && day <= days[end - 1]) {
+            throw new IllegalArgumentException("days must be appended in ascending order");
+        }
+        if (end == days.length) {
+            makeRoom();
+        }
+        double logReturn = end > start ? Math.log(rate / rates[end - 1]) : 0d;
+        days[end] = day;
+        rates[end] = rate;
+        rateSums[end + 1] = rateSums[end] + rate;
+        returnSums[end + 1] = returnSums[end] + logReturn;
+        squareSums[end + 1] = squareSums[end] + logReturn * logReturn;
+        end++;
+        weekly.add(end - 1);
+        monthly.add(end - 1);
+    }
+
+    // forgets the days before the given one, as when the lookback window slides forward
+    public void dropBefore(int day) {
+        int s = lowerBound(day);
+        if (s <= start) {
+            return;
+        }
+        start = s;
+        weekly.dropBefore(s);
+        monthly.dropBefore(s);
+    }
+
+    // brings this up to date with a refreshed series by appending only the days after the last one
+    // seen. False when the series does not continue this one (it starts earlier or the last known day
+    // moved), in which case the caller rebuilds; reference rates are not revised once published, so
+    // checking the last known day is enough to tell a continuation from a different series.
+    public boolean extendTo(HistoricalSeries series) {
+        if (isEmpty() || series.isEmpty()) {
+            return false;
+        }
+        int k = series.floorIndex(lastDay());
+        if (k < 0 || series.dayAt(k) != lastDay()
+                || Double.compare(series.rateAt(k), rates[end - 1]) != 0
+                || series.firstDay() < firstDay()) {
+            return false;
+        }
+        dropBefore(series.firstDay());
+        appendFrom(series, k + 1);
+        return true;
+    }
+
+    // the mean of each day's rate and the window - 1 rates before it, from the first day with a full window
+    public Points movingAverage(int window, int fromDay, int toDay) {
+        int from = (int) Math.max(lowerBound(fromDay), Math.min(end, (long) start + window - 1));
+        int to = upperBound(toDay);
+        Points points = new Points(Math.max(0, to - from));
+        for (int p = from; p < to; p++) {
+            points.set(p - from, days[p], (rateSums[p + 1] - rateSums[p + 1 - window]) / window);
+        }
+        return points;
+    }
+
+    // sample standard deviation of the last window daily log returns at each day, which needs window + 1 rates
+    public Points volatility(int window, int fromDay, int toDay) {
+        int from = (int) Math.max(lowerBound(fromDay), Math.min(end, (long) start + window));
+        int to = upperBound(toDay);
+        Points points = new Points(Math.max(0, to - from));
+        for (int p = from; p < to; p++) {
+            double sum = returnSums[p + 1] - returnSums[p + 1 - window];
+            double squares = squareSums[p + 1] - squareSums[p + 1 - window];
+            double variance = (squares - sum * sum / window) / (window - 1);
+            points.set(p - from, days[p], Math.sqrt(Math.max(0d, variance)));
+        }
+        return points;
+    }
+
+    // bars whose first observed day falls in the range
+    public Candles bars(Period period, int fromDay, int toDay) {
+        return (period == Period.WEEK ? weekly : monthly).between(fromDay, toDay);
+    }
+
+    private void appendFrom(HistoricalSeries series, int from) {
+        for (int i = from; i < series.size(); i++) {
+            append(series.dayAt(i), series.rateAt(i));
+        }
+    }
+
+    private int lowerBound(int day) {
+        int i = Arrays.binarySearch(days, start, end, day);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private int upperBound(int day) {
+        int i = Arrays.binarySearch(days, start, end, day);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    // reuse the space of dropped days when they make up half the buffer, otherwise double it
+    private void makeRoom() {
+        if (start >= days.length / 2) {
+            int shift = start;
+            System.arraycopy(days, shift, days, 0, end - shift);
+            System.arraycopy(rates, shift, rates, 0, end - shift);
+            System.arraycopy(rateSums, shift, rateSums, 0, end - shift + 1);
+            System.arraycopy(returnSums, shift, returnSums, 0, end - shift + 1);
+            System.arraycopy(squareSums, shift, squareSums, 0, end - shift + 1);
+            start -= shift;
+            end -= shift;
+            rebase(rateSums);
+            rebase(returnSums);
+            rebase(squareSums);
+            weekly.shift(shift);
+            monthly.shift(shift);
+            return;
+        }
+        int capacity = days.length * 2;
+        days = Arrays.copyOf(days, capacity);
+        rates = Arrays.copyOf(rates, capacity);
+        rateSums = Arrays.copyOf(rateSums, capacity + 1);
+        returnSums = Arrays.copyOf(returnSums, capacity + 1);
+        squareSums = Arrays.copyOf(squareSums, capacity + 1);
+    }
+
+    // only differences of prefix sums are used, so restarting them at zero changes no result and keeps
+    // them from growing without bound on a long-running window
+    private void rebase(double[] sums) {
+        double origin = sums[0];
+        for (int p = 0; p <= end; p++) {
+            sums[p] -= origin;
+        }
+    }
+
+    public static class Points {
+        private final int[] days;
+        private final double[] values;
+
+        Points(int size) {
+            this.days = new int[size];
+            this.values = new double[size];
+        }
+
+        void set(int i, int day, double value) {
+            days[i] = day;
+            values[i] = value;
+        }
+
+        public int size() {
+            return days.length;
+        }
+
+        public int dayAt(int i) {
+            return days[i];
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+    }
+
+    public static class Candles {
+        private final int[] starts;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+
+        Candles(int[] starts, double[] open, double[] high, double[] low, double[] close) {
+            this.starts = starts;
+            this.open = open;
+            this.high = high;
+            this.low = low;
+            this.close = close;
+        }
+
+        public int size() {
+            return starts.length;
+        }
+
+        // first day of the calendar week (Monday) or month
+        public int periodStartAt(int i) {
+            return starts[i];
+        }
+
+        public double[] getOpen() {
+            return open;
+        }
+
+        public double[] getHigh() {
+            return high;
+        }
+
+        public double[] getLow() {
+            return low;
+        }
+
+        public double[] getClose() {
+            return close;
+        }
+    }
+
+    // one bar per calendar period, each remembering the buffer position of its first day so a bar cut
+    // by a sliding window can be recomputed from the days that are left
+    private class Bars {
+        private final Period period;
+        private int[] starts = new int[16];
+        private int[] firstIndex = new int[16];
+        private double[] open = new double[16];
+        private double[] high = new double[16];
+        private double[] low = new double[16];
+        private double[] close = new double[16];
+        private int first;
+        private int count;
+        private int nextBoundary;
+
+        Bars(Period period) {
+            this.period = period;
+        }
+
+        void add(int p) {
+            int day = days[p];
+            double rate = rates[p];
+            if (count > first && day < nextBoundary) {
+                int b = count - 1;
+                high[b] = Math.max(high[b], rate);
+                low[b] = Math.min(low[b], rate);
+                close[b] = rate;
+                return;
+            }
+            if (count == starts.length) {
+                makeRoom();
+            }
+            int periodStart = periodStart(day);
+            starts[count] = periodStart;
+            firstIndex[count] = p;
+            open[count] = rate;
+            high[count] = rate;
+            low[count] = rate;
+            close[count] = rate;
+            nextBoundary = nextPeriodStart(periodStart);
+            count++;
+        }
+
+        void dropBefore(int s) {
+            while (first < count && endOf(first) <= s) {
+                first++;
+            }
+            if (first == count) {
+                first = 0;
+                count = 0;
+                return;
+            }
+            if (firstIndex[first] < s) {
+                int b = first;
+                int to = endOf(b);
+                firstIndex[b] = s;
+                open[b] = rates[s];
+                high[b] = rates[s];
+                low[b] = rates[s];
+                for (int p = s + 1; p < to; p++) {
+                    high[b] = Math.max(high[b], rates[p]);
+                    low[b] = Math.min(low[b], rates[p]);
+                }
+            }
+        }
+
+        void shift(int positions) {
+            for (int b = first; b < count; b++) {
+                firstIndex[b] -= positions;
+            }
+        }
+
+        Candles between(int fromDay, int toDay) {
+            int from = first;
+            while (from < count && days[firstIndex[from]] < fromDay) {
+                from++;
+            }
+            int to = from;
+            while (to < count && days[firstIndex[to]] <= toDay) {
+                to++;
+            }
+            return new Candles(Arrays.copyOfRange(starts, from, to), Arrays.copyOfRange(open, from, to),
+                    Arrays.copyOfRange(high, from, to), Arrays.copyOfRange(low, from, to),
+                    Arrays.copyOfRange(close, from, to));
+        }
+
+        private int endOf(int b) {
+            return b + 1 < count ? firstIndex[b + 1] : end;
+        }
+
+        private void makeRoom() {
+            if (first >= starts.length / 2) {
+                int live = count - first;
+                System.arraycopy(starts, first, starts, 0, live);
+                System.arraycopy(firstIndex, first, firstIndex, 0, live);
+                System.arraycopy(open, first, open, 0, live);
+                System.arraycopy(high, first, high, 0, live);
+                System.arraycopy(low, first, low, 0, live);
+                System.arraycopy(close, first, close, 0, live);
+                first = 0;
+                count = live;
+                return;
+            }
+            int capacity = starts.length * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            firstIndex = Arrays.copyOf(firstIndex, capacity);
+            open = Arrays.copyOf(open, capacity);
+            high = Arrays.copyOf(high, capacity);
+            low = Arrays.copyOf(low, capacity);
+            close = Arrays.copyOf(close, capacity);
+        }
+
+        // epoch day 0 was a Thursday, so Monday is three days back from it
+        private int periodStart(int day) {
+            if (period == Period.WEEK) {
+                return day - Math.floorMod(day + 3, 7);
+            }
+            return (int) LocalDate.ofEpochDay(day).withDayOfMonth(1).toEpochDay();
+        }
+
+        private int nextPeriodStart(int periodStart) {
+            if (period == Period.WEEK) {
+                return periodStart + 7;
+            }
+            return (int) LocalDate.ofEpochDay(periodStart).plusMonths(1).toEpochDay();
+        }
+    }
+}
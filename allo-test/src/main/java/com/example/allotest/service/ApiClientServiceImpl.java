@@ -1,26 +1,118 @@
 package com.example.allotest.service;
 
+import com.example.allotest.exceptions.CircuitOpenException;
 import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
 import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
-public class ApiClientServiceImpl implements IApiClientService {
+public class ApiClientServiceImpl implements IApiClientService, MeterBinder {
     private final Map<String, IDataFetcher> strategies;
+    private final QueryCache queryCache;
+    private final CircuitBreakerRegistry breakers;
+    private final FetchMetrics fetchMetrics;
+    private final Map<QueryKey, Mono<Object[]>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder upstreamCalls = new LongAdder();
 
-    public ApiClientServiceImpl(Map<String, IDataFetcher> strategies) {
+    public ApiClientServiceImpl(Map<String, IDataFetcher> strategies,
+                                QueryCache queryCache,
+                                CircuitBreakerRegistry breakers,
+                                FetchMetrics fetchMetrics) {
         this.strategies = strategies;
+        this.queryCache = queryCache;
+        this.breakers = breakers;
+        this.fetchMetrics = fetchMetrics;
     }
 
     @Override
     public Object[] fetchData(String resourceType) {
-        try {
+        return fetchData(resourceType, Map.of());
+    }
+
+    @Override
+    public Object[] fetchData(String resourceType, Map<String, String> params) {
+        return fetchDataAsync(resourceType, params).block();
+    }
+
+    @Override
+    public Mono<Object[]> fetchDataAsync(String resourceType) {
+        return fetchDataAsync(resourceType, Map.of());
+    }
+
+    // callers asking for the same resource and parameters while a call is in flight join that call
+    // and all get its result (or its error); the entry is dropped once the call finishes, so the
+    // next caller after that goes upstream again. Parameterized results are also kept in the query
+    // cache for their resource's TTL, plain resource fetches are refreshes and always go upstream.
+    @Override
+    public Mono<Object[]> fetchDataAsync(String resourceType, Map<String, String> params) {
+        return Mono.defer(() -> {
+            requests.increment();
             IDataFetcher strategy = strategies.get(resourceType);
-            return strategy.fetchData();
-        } catch (Exception e) {
-            throw new CustomGlobalException("error occured: " + e.getMessage(), resourceType);
-        }
+            if (strategy == null) {
+                return Mono.error(new CustomGlobalException("error occured: unknown resource " + resourceType, resourceType));
+            }
+            QueryKey key = new QueryKey(resourceType, params);
+            if (key.hasParams()) {
+                Object[] cached = queryCache.get(key);
+                if (cached != null) {
+                    cacheHits.increment();
+                    return Mono.just(cached);
+                }
+            }
+            return inFlight.computeIfAbsent(key, ignored -> startFlight(key, strategy));
+        // an open circuit passes through as it is, so callers can tell it apart and say when to retry
+        }).onErrorMap(e -> !(e instanceof CustomGlobalException) && !(e instanceof CircuitOpenException),
+                e -> new CustomGlobalException("error occured: " + e.getMessage(), resourceType));
+    }
+
+    @Override
+    public FetchStats getStats() {
+        return new FetchStats(requests.sum(), cacheHits.sum(), upstreamCalls.sum(), inFlight.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("finance.fetch.requests", requests, LongAdder::sum)
+                .description("Fetches requested through the api client service")
+                .register(registry);
+        FunctionCounter.builder("finance.fetch.cache.hits", cacheHits, LongAdder::sum)
+                .description("Parameterized fetches answered from the query cache")
+                .register(registry);
+        FunctionCounter.builder("finance.fetch.upstream.calls", upstreamCalls, LongAdder::sum)
+                .description("Fetches that actually went upstream")
+                .register(registry);
+        FunctionCounter.builder("finance.fetch.coalesced", this, service -> service.getStats().getCoalesced())
+                .description("Fetches answered by joining a call already in flight")
+                .register(registry);
+        Gauge.builder("finance.fetch.in.flight", inFlight, Map::size)
+                .description("Upstream calls currently in flight")
+                .register(registry);
+    }
+
+    private Mono<Object[]> startFlight(QueryKey key, IDataFetcher strategy) {
+        upstreamCalls.increment();
+        // while the fetcher's breaker is open the call fails at once instead of waiting on a dead upstream
+        return breakers.breakerFor(key.getResourceType())
+                .protect(fetchMetrics.record(key.getResourceType(), Mono.defer(() -> strategy.fetchDataAsync(key.getParams()))))
+                .doOnNext(data -> {
+                    if (key.hasParams()) {
+                        queryCache.put(key, data);
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
     }
 }
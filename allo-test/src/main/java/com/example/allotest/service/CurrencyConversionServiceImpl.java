@@ -0,0 +1,68 @@
+package com.example.allotest.service;
+
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.ConversionResponseDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.DataStore;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+@Service
+public class CurrencyConversionServiceImpl implements ICurrencyConversionService {
+    private final DataStore store;
+
+    public CurrencyConversionServiceImpl(DataStore store) {
+        this.store = store;
+    }
+
+    // every rate in the table is quoted against IDR, so any pair is the ratio of two slots:
+    // 1 FROM = rate(TO) / rate(FROM) TO
+    @Override
+    public ConversionResponseDto convert(String from, String to, double amount, boolean applySpread) {
+        if (!Double.isFinite(amount) || amount < 0) {
+            throw new InvalidParameterException("amount must be a non-negative number", ResourceTypeConstants.CONVERT);
+        }
+
+        LatestRates latestRates = currentRates();
+        RateTable table = latestRates.getRateTable();
+        String fromCode = from.toUpperCase(Locale.ROOT);
+        String toCode = to.toUpperCase(Locale.ROOT);
+        double fromRate = table.rateOf(fromCode);
+        double toRate = table.rateOf(toCode);
+        if (Double.isNaN(fromRate) || fromRate == 0d) {
+            throw new InvalidParameterException("unsupported currency: " + from, ResourceTypeConstants.CONVERT);
+        }
+        if (Double.isNaN(toRate)) {
+            throw new InvalidParameterException("unsupported currency: " + to, ResourceTypeConstants.CONVERT);
+        }
+
+        // buying the target currency carries its spread from the priced table, the same markup that
+        // produces USD_BuySpread_IDR from the USD rate
+        double rate = toRate / fromRate;
+        if (applySpread) {
+            rate *= 1 + spreadOf(latestRates, toCode);
+        }
+        return new ConversionResponseDto(fromCode, toCode, amount, rate, amount * rate, applySpread, table.getDate());
+    }
+
+    private static double spreadOf(LatestRates latestRates, String code) {
+        PriceTable prices = latestRates.getPriceTable();
+        double spread = prices == null ? Double.NaN : prices.spreadOf(code);
+        return Double.isNaN(spread) ? latestRates.getSpreadFactor() : spread;
+    }
+
+    private LatestRates currentRates() {
+        Object[] data = store.getFromStore(ResourceTypeConstants.LATEST_IDR_RATES);
+        if (data == null || data.length == 0
+                || !(data[0] instanceof LatestRates latestRates)
+                || latestRates.getRateTable() == null) {
+            throw new CustomGlobalException("latest rates are not loaded yet", ResourceTypeConstants.CONVERT);
+        }
+        return latestRates;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.allotest.service;
+
+public class FetchStats {
+    private final long requests;
+    private final long cacheHits;
+    private final long upstreamCalls;
+    private final int inFlight;
+
+    public FetchStats(long requests, long cacheHits, long upstreamCalls, int inFlight) {
+        this.requests = requests;
+        this.cacheHits = cacheHits;
+        this.upstreamCalls = upstreamCalls;
+        this.inFlight = inFlight;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getUpstreamCalls() {
+        return upstreamCalls;
+    }
+
+    // callers that were answered by joining a call already in flight instead of starting their own
+    public long getCoalesced() {
+        return requests - cacheHits - upstreamCalls;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
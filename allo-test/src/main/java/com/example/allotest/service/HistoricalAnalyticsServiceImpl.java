@@ -0,0 +1,225 @@
+package com.example.allotest.service;
+
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.OhlcDto;
+import com.example.allotest.dtos.RollingStatsDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.HistoricalSeries;
+import com.example.allotest.model.SeriesAnalytics;
+import com.example.allotest.store.DataSnapshot;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.PublishListener;
+import com.example.allotest.store.ResourceEntry;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Moving averages, volatility and OHLC bars over the in-memory historical_idr_series. Each currency's
+// analytics are built in one pass the first time and afterwards only extended with the days a refresh
+// added, so a new day never recomputes the history. The series is refreshed as a whole, which is why
+// the continuation is found here rather than pushed by the fetcher.
+@Service
+public class HistoricalAnalyticsServiceImpl implements IHistoricalAnalyticsService, PublishListener {
+    static final String MOVING_AVERAGE = "moving_average";
+    static final String VOLATILITY = "volatility";
+
+    private final DataStore store;
+    // queries share the read lock and run side by side; only bringing the analytics up to a series
+    // they have not seen yet takes the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SeriesAnalytics> analytics = new HashMap<>();
+    private HistoricalRates synced;
+    private long appendedDays;
+    private int rebuilds;
+
+    public HistoricalAnalyticsServiceImpl(DataStore store) {
+        this.store = store;
+        store.addPublishListener(this);
+    }
+
+    @Override
+    public void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot) {
+        if (ResourceTypeConstants.HISTORICAL_IDR_SERIES.equals(key)
+                && current.getData() != null && current.getData().length > 0
+                && current.getData()[0] instanceof HistoricalRates rates) {
+            lock.writeLock().lock();
+            try {
+                sync(rates);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public RollingStatsDto getMovingAverage(String currency, int window, String startDate, String endDate) {
+        if (window < 1) {
+            throw new InvalidParameterException("window must be at least 1 day", ResourceTypeConstants.ANALYTICS);
+        }
+        int from = startDay(startDate);
+        int to = endDay(endDate);
+        HistoricalRates rates = lockCurrentRates();
+        try {
+            SeriesAnalytics series = analyticsFor(currency);
+            return toStats(rates.getBase(), series, MOVING_AVERAGE, window, series.movingAverage(window, from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public RollingStatsDto getVolatility(String currency, int window, String startDate, String endDate) {
+        if (window < 2) {
+            throw new InvalidParameterException("window must be at least 2 days", ResourceTypeConstants.ANALYTICS);
+        }
+        int from = startDay(startDate);
+        int to = endDay(endDate);
+        HistoricalRates rates = lockCurrentRates();
+        try {
+            SeriesAnalytics series = analyticsFor(currency);
+            return toStats(rates.getBase(), series, VOLATILITY, window, series.volatility(window, from, to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public OhlcDto getOhlc(String currency, String period, String startDate, String endDate) {
+        SeriesAnalytics.Period barPeriod = parsePeriod(period);
+        int from = startDay(startDate);
+        int to = endDay(endDate);
+        HistoricalRates rates = lockCurrentRates();
+        try {
+            SeriesAnalytics series = analyticsFor(currency);
+            SeriesAnalytics.Candles bars = series.bars(barPeriod, from, to);
+            String[] starts = new String[bars.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = LocalDate.ofEpochDay(bars.periodStartAt(i)).toString();
+            }
+            return new OhlcDto(rates.getBase(), series.getCurrency(), barPeriod.name().toLowerCase(Locale.ROOT), starts,
+                    bars.getOpen(), bars.getHigh(), bars.getLow(), bars.getClose());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long getAppendedDays() {
+        return appendedDays;
+    }
+
+    int getRebuilds() {
+        return rebuilds;
+    }
+
+    // returns holding the read lock, with the analytics in step with the stored series. An entry
+    // restored from disk never went through publish, so the first query syncs it under the write
+    // lock and then downgrades to the read lock.
+    private HistoricalRates lockCurrentRates() {
+        lock.readLock().lock();
+        HistoricalRates rates;
+        try {
+            rates = storedRates();
+        } catch (RuntimeException e) {
+            lock.readLock().unlock();
+            throw e;
+        }
+        if (rates == synced) {
+            return rates;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            rates = storedRates();
+            sync(rates);
+            lock.readLock().lock();
+            return rates;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private HistoricalRates storedRates() {
+        Object[] data = store.getFromStore(ResourceTypeConstants.HISTORICAL_IDR_SERIES);
+        if (data == null || data.length == 0 || !(data[0] instanceof HistoricalRates rates)) {
+            throw new CustomGlobalException("historical rates are not loaded yet", ResourceTypeConstants.ANALYTICS);
+        }
+        return rates;
+    }
+
+    private void sync(HistoricalRates rates) {
+        if (rates == synced) {
+            return;
+        }
+        Map<String, SeriesAnalytics> kept = new HashMap<>(rates.seriesCount() * 2);
+        for (int i = 0; i < rates.seriesCount(); i++) {
+            HistoricalSeries series = rates.seriesAt(i);
+            SeriesAnalytics current = analytics.get(series.getCurrency());
+            if (current != null) {
+                int before = current.size();
+                int lastDay = current.isEmpty() ? Integer.MIN_VALUE : current.lastDay();
+                if (current.extendTo(series)) {
+                    appendedDays += series.size() - series.lowerBound(lastDay + 1);
+                    kept.put(series.getCurrency(), current);
+                    continue;
+                }
+                if (before > 0) {
+                    rebuilds++;
+                }
+            }
+            SeriesAnalytics built = SeriesAnalytics.of(series);
+            appendedDays += series.size();
+            kept.put(series.getCurrency(), built);
+        }
+        analytics.clear();
+        analytics.putAll(kept);
+        synced = rates;
+    }
+
+    private SeriesAnalytics analyticsFor(String currency) {
+        SeriesAnalytics series = analytics.get(currency.toUpperCase(Locale.ROOT));
+        if (series == null || series.isEmpty()) {
+            throw new InvalidParameterException("unsupported currency: " + currency, ResourceTypeConstants.ANALYTICS);
+        }
+        return series;
+    }
+
+    private static RollingStatsDto toStats(String base, SeriesAnalytics series, String metric, int window,
+                                           SeriesAnalytics.Points points) {
+        String[] dates = new String[points.size()];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(points.dayAt(i)).toString();
+        }
+        return new RollingStatsDto(base, series.getCurrency(), metric, window, dates, points.getValues());
+    }
+
+    private static SeriesAnalytics.Period parsePeriod(String period) {
+        try {
+            return SeriesAnalytics.Period.valueOf(period.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("period must be week or month", ResourceTypeConstants.ANALYTICS);
+        }
+    }
+
+    private static int startDay(String date) {
+        return date == null ? Integer.MIN_VALUE : parseDay(date);
+    }
+
+    private static int endDay(String date) {
+        return date == null ? Integer.MAX_VALUE : parseDay(date);
+    }
+
+    private static int parseDay(String date) {
+        try {
+            return (int) LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new InvalidParameterException("invalid date: " + date, ResourceTypeConstants.ANALYTICS);
+        }
+    }
+}
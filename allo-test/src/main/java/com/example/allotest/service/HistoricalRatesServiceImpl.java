@@ -0,0 +1,125 @@
+package com.example.allotest.service;
+
+import com.example.allotest.constants.FetchParamConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.HistoricalAsOfDto;
+import com.example.allotest.dtos.HistoricalRangeDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.HistoricalSeries;
+import com.example.allotest.store.DataStore;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+public class HistoricalRatesServiceImpl implements IHistoricalRatesService {
+    private final DataStore store;
+    private final IApiClientService apiClientService;
+
+    public HistoricalRatesServiceImpl(DataStore store, IApiClientService apiClientService) {
+        this.store = store;
+        this.apiClientService = apiClientService;
+    }
+
+    // the in-memory series covers the configured lookback window; older ranges go upstream through the
+    // api client service, which merges identical concurrent requests into one call
+    @Override
+    public Mono<HistoricalRangeDto> getRange(String currency, String startDate, String endDate) {
+        HistoricalRates rates = currentRates();
+        HistoricalSeries series = seriesFor(rates, currency);
+        int start = startDate == null ? Integer.MIN_VALUE : parseDay(startDate);
+        int end = endDate == null ? Integer.MAX_VALUE : parseDay(endDate);
+        if (start > end) {
+            throw new InvalidParameterException("start date must not be after end date", ResourceTypeConstants.HISTORICAL);
+        }
+
+        if (startDate == null || start >= series.firstDay()) {
+            return Mono.just(toRange(rates.getBase(), series, start, end));
+        }
+
+        Map<String, String> params = new HashMap<>();
+        params.put(FetchParamConstants.START_DATE, startDate);
+        params.put(FetchParamConstants.TO_CURRENCY, series.getCurrency());
+        if (endDate != null) {
+            params.put(FetchParamConstants.END_DATE, endDate);
+        }
+        return apiClientService.fetchDataAsync(ResourceTypeConstants.HISTORICAL_IDR_USD, params)
+                .map(data -> {
+                    HistoricalRates fetched = data.length > 0 && data[0] instanceof Map<?, ?> response
+                            ? HistoricalRates.fromResponse(response)
+                            : new HistoricalRates.Builder(rates.getBase()).build();
+                    HistoricalSeries fetchedSeries = fetched.series(series.getCurrency());
+                    return fetchedSeries == null
+                            ? new HistoricalRangeDto(rates.getBase(), series.getCurrency(), null, null, new String[0], new double[0])
+                            : toRange(fetched.getBase(), fetchedSeries, start, end);
+                });
+    }
+
+    private static HistoricalRangeDto toRange(String base, HistoricalSeries series, int start, int end) {
+        int from = series.lowerBound(start);
+        int to = series.floorIndex(end) + 1;
+        if (to < from) {
+            to = from;
+        }
+
+        String[] dates = new String[to - from];
+        for (int i = from; i < to; i++) {
+            dates[i - from] = LocalDate.ofEpochDay(series.dayAt(i)).toString();
+        }
+        return new HistoricalRangeDto(
+                base,
+                series.getCurrency(),
+                dates.length == 0 ? null : dates[0],
+                dates.length == 0 ? null : dates[dates.length - 1],
+                dates,
+                series.copyRates(from, to));
+    }
+
+    // markets close on weekends and holidays, so "as of" means the last published day on or before
+    @Override
+    public HistoricalAsOfDto getAsOf(String currency, String date) {
+        HistoricalRates rates = currentRates();
+        HistoricalSeries series = seriesFor(rates, currency);
+        int i = series.floorIndex(parseDay(date));
+        if (i < 0) {
+            throw new InvalidParameterException("no rate published on or before " + date, ResourceTypeConstants.HISTORICAL);
+        }
+        return new HistoricalAsOfDto(
+                rates.getBase(),
+                series.getCurrency(),
+                date,
+                LocalDate.ofEpochDay(series.dayAt(i)).toString(),
+                series.rateAt(i));
+    }
+
+    private HistoricalRates currentRates() {
+        Object[] data = store.getFromStore(ResourceTypeConstants.HISTORICAL_IDR_SERIES);
+        if (data == null || data.length == 0 || !(data[0] instanceof HistoricalRates rates)) {
+            throw new CustomGlobalException("historical rates are not loaded yet", ResourceTypeConstants.HISTORICAL);
+        }
+        return rates;
+    }
+
+    private static HistoricalSeries seriesFor(HistoricalRates rates, String currency) {
+        HistoricalSeries series = rates.series(currency.toUpperCase(Locale.ROOT));
+        if (series == null || series.isEmpty()) {
+            throw new InvalidParameterException("unsupported currency: " + currency, ResourceTypeConstants.HISTORICAL);
+        }
+        return series;
+    }
+
+    private static int parseDay(String date) {
+        try {
+            return (int) LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new InvalidParameterException("invalid date: " + date, ResourceTypeConstants.HISTORICAL);
+        }
+    }
+}
@@ -1,5 +1,17 @@
 package com.example.allotest.service;
 
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
 public interface IApiClientService {
     Object[] fetchData(String resourceType);
+
+    Object[] fetchData(String resourceType, Map<String, String> params);
+
+    Mono<Object[]> fetchDataAsync(String resourceType);
+
+    Mono<Object[]> fetchDataAsync(String resourceType, Map<String, String> params);
+
+    FetchStats getStats();
 }
@@ -0,0 +1,7 @@
+package com.example.allotest.service;
+
+import com.example.allotest.dtos.ConversionResponseDto;
+
+public interface ICurrencyConversionService {
+    ConversionResponseDto convert(String from, String to, double amount, boolean applySpread);
+}
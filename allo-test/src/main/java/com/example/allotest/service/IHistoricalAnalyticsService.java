@@ -0,0 +1,12 @@
+package com.example.allotest.service;
+
+import com.example.allotest.dtos.OhlcDto;
+import com.example.allotest.dtos.RollingStatsDto;
+
+public interface IHistoricalAnalyticsService {
+    RollingStatsDto getMovingAverage(String currency, int window, String startDate, String endDate);
+
+    RollingStatsDto getVolatility(String currency, int window, String startDate, String endDate);
+
+    OhlcDto getOhlc(String currency, String period, String startDate, String endDate);
+}
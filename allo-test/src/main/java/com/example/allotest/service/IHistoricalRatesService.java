@@ -0,0 +1,11 @@
+package com.example.allotest.service;
+
+import com.example.allotest.dtos.HistoricalAsOfDto;
+import com.example.allotest.dtos.HistoricalRangeDto;
+import reactor.core.publisher.Mono;
+
+public interface IHistoricalRatesService {
+    Mono<HistoricalRangeDto> getRange(String currency, String startDate, String endDate);
+
+    HistoricalAsOfDto getAsOf(String currency, String date);
+}
@@ -0,0 +1,142 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.QueryCacheProperties;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.LatestRates;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+
+// Results of parameterized upstream queries, bounded by an estimate of their heap size rather than
+// by entry count, since one multi-year range weighs as much as thousands of single-day lookups.
+// Each entry lives for the TTL configured for its resource type.
+@Component
+public class QueryCache implements MeterBinder {
+    private final QueryCacheProperties properties;
+    private final Cache<QueryKey, Object[]> cache;
+
+    @Autowired
+    public QueryCache(QueryCacheProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    QueryCache(QueryCacheProperties properties, Ticker ticker) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight().toBytes())
+                .weigher((QueryKey key, Object[] value) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(value)))
+                .expireAfter(new ResourceTtl(properties))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Object[] get(QueryKey key) {
+        return properties.isEnabled() ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(QueryKey key, Object[] value) {
+        if (properties.isEnabled()) {
+            cache.put(key, value);
+        }
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "finance.query");
+    }
+
+    // rough shallow-plus-contents estimate; only the relative size between entries has to be right
+    static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String string) {
+            return 40L + 2L * string.length();
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 16;
+        }
+        if (value instanceof HistoricalRates historicalRates) {
+            long total = 64;
+            for (int i = 0; i < historicalRates.seriesCount(); i++) {
+                total += 48 + historicalRates.seriesAt(i).estimatedBytes();
+            }
+            return total;
+        }
+        if (value instanceof LatestRates latestRates) {
+            return 96 + (latestRates.getRateTable() == null ? 0 : 24L * latestRates.getRateTable().size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            long total = 48;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                total += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return total;
+        }
+        if (value instanceof Collection<?> collection) {
+            long total = 40;
+            for (Object item : collection) {
+                total += 8 + estimateBytes(item);
+            }
+            return total;
+        }
+        if (value instanceof Object[] array) {
+            long total = 16;
+            for (Object item : array) {
+                total += 8 + estimateBytes(item);
+            }
+            return total;
+        }
+        return 64;
+    }
+
+    private static class ResourceTtl implements Expiry<QueryKey, Object[]> {
+        private final QueryCacheProperties properties;
+
+        ResourceTtl(QueryCacheProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public long expireAfterCreate(QueryKey key, Object[] value, long currentTime) {
+            return properties.ttlFor(key.getResourceType()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(QueryKey key, Object[] value, long currentTime, long currentDuration) {
+            return properties.ttlFor(key.getResourceType()).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(QueryKey key, Object[] value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
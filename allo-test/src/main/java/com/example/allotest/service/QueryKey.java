@@ -0,0 +1,56 @@
+package com.example.allotest.service;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// resource type plus its parameters sorted by name with blank values dropped, so the same query
+// always maps to the same key whatever order or spelling the caller used
+public class QueryKey {
+    private final String resourceType;
+    private final SortedMap<String, String> params;
+    private final int hash;
+
+    public QueryKey(String resourceType, Map<String, String> params) {
+        SortedMap<String, String> normalized = new TreeMap<>();
+        params.forEach((name, value) -> {
+            if (value != null && !value.isBlank()) {
+                normalized.put(name, value.trim());
+            }
+        });
+        this.resourceType = resourceType;
+        this.params = Collections.unmodifiableSortedMap(normalized);
+        this.hash = Objects.hash(resourceType, this.params);
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public SortedMap<String, String> getParams() {
+        return params;
+    }
+
+    public boolean hasParams() {
+        return !params.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof QueryKey key
+                && resourceType.equals(key.resourceType)
+                && params.equals(key.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return params.isEmpty() ? resourceType : resourceType + params;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.RateStreamProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.RateUpdateDto;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.DataSnapshot;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResourceEntry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes latest_idr_rates changes to SSE subscribers. Every event is serialized once when the store
+// publishes and the same instance goes to all subscribers, which only hold a position in a small
+// shared replay buffer, so an idle subscriber costs its connection and little else.
+@Component
+public class RateUpdateStream implements MeterBinder {
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String UPDATE_EVENT = "update";
+    private static final ServerSentEvent<String> HEARTBEAT = ServerSentEvent.<String>builder().comment("keepalive").build();
+
+    private final DataStore store;
+    private final JsonMapper jsonMapper;
+    private final Sinks.Many<RateEvent> updates;
+    private final Flux<ServerSentEvent<String>> heartbeat;
+    private final Duration timeout;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private volatile RateEvent snapshotEvent;
+
+    public RateUpdateStream(DataStore store, JsonMapper jsonMapper, RateStreamProperties properties) {
+        this.store = store;
+        this.jsonMapper = jsonMapper;
+        this.updates = Sinks.many().replay().limit(Math.max(1, properties.getReplay()));
+        // one timer for all subscribers, running only while there are any
+        this.heartbeat = Flux.interval(properties.getHeartbeat()).map(tick -> HEARTBEAT).share();
+        this.timeout = properties.getTimeout();
+        store.addPublishListener(this::onPublish);
+    }
+
+    // the current rates first, then only the changes. Updates are replayed from the shared buffer and
+    // anything not newer than the first event is dropped, so a refresh landing while a subscriber
+    // connects is neither lost nor sent twice. A subscriber that cannot keep up misses heartbeats
+    // rather than holding up the others. The stream ends after stream.rates.timeout, on either web
+    // stack, and the client's EventSource reconnects to a fresh snapshot; other async requests keep
+    // the server's default timeout.
+    public Flux<ServerSentEvent<String>> subscribe() {
+        return Flux.defer(() -> {
+                    RateEvent first = currentSnapshotEvent();
+                    long since = first == null ? 0 : first.getVersion();
+                    Flux<ServerSentEvent<String>> changes = updates.asFlux()
+                            .filter(update -> update.getVersion() > since)
+                            .map(RateEvent::getEvent);
+                    return (first == null ? changes : changes.startWith(first.getEvent()))
+                            .mergeWith(heartbeat.onBackpressureDrop())
+                            .take(timeout);
+                })
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("finance.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open latest rates event streams")
+                .register(registry);
+    }
+
+    // publishes are already filtered down to content changes by the store; this only narrows them to
+    // the rates that moved
+    private synchronized void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot) {
+        if (!ResourceTypeConstants.LATEST_IDR_RATES.equals(key)) {
+            return;
+        }
+        RateTable table = RateHistory.rateTable(current);
+        if (table == null) {
+            return;
+        }
+        Map<String, Double> changed = table.changesFrom(RateHistory.rateTable(previous));
+        if (changed.isEmpty()) {
+            return;
+        }
+        updates.tryEmitNext(event(UPDATE_EVENT, current, snapshot.getVersion(), table, changed));
+    }
+
+    // built once per published entry and shared by everyone connecting until the next change
+    private RateEvent currentSnapshotEvent() {
+        DataSnapshot snapshot = store.getSnapshot();
+        ResourceEntry entry = snapshot.getEntry(ResourceTypeConstants.LATEST_IDR_RATES);
+        RateTable table = RateHistory.rateTable(entry);
+        if (table == null) {
+            return null;
+        }
+        RateEvent cached = snapshotEvent;
+        if (cached != null && cached.getEntry() == entry) {
+            return cached;
+        }
+        RateEvent built = event(SNAPSHOT_EVENT, entry, snapshot.getVersion(), table, table.toMap());
+        snapshotEvent = built;
+        return built;
+    }
+
+    private RateEvent event(String name, ResourceEntry entry, long version, RateTable table, Map<String, Double> rates) {
+        String data = jsonMapper.writeValueAsString(new RateUpdateDto(version, table.getDate(), table.getBase(), rates));
+        return new RateEvent(entry, version, ServerSentEvent.<String>builder()
+                .id(Long.toString(version))
+                .event(name)
+                .data(data)
+                .build());
+    }
+
+    private static class RateEvent {
+        private final ResourceEntry entry;
+        private final long version;
+        private final ServerSentEvent<String> event;
+
+        RateEvent(ResourceEntry entry, long version, ServerSentEvent<String> event) {
+            this.entry = entry;
+            this.version = version;
+            this.event = event;
+        }
+
+        ResourceEntry getEntry() {
+            return entry;
+        }
+
+        long getVersion() {
+            return version;
+        }
+
+        ServerSentEvent<String> getEvent() {
+            return event;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.allotest.store;
+
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.CrossRatesDto;
+import com.example.allotest.model.CrossRateMatrix;
+import com.example.allotest.model.RateTable;
+import org.springframework.stereotype.Component;
+
+// The cross-rate matrix of the current latest_idr_rates table, with every row already serialized, so a
+// request for any base is served from stored bytes exactly like the IDR payload. Built when a refresh
+// changes the rates; an entry restored from disk never went through publish and is built on first use.
+@Component
+public class CrossRates implements PublishListener {
+    private final ResponseSerializer serializer;
+    private final DerivedResponseCache<Rows> rows = new DerivedResponseCache<>(this::build);
+
+    public CrossRates(DataStore store, ResponseSerializer serializer) {
+        this.serializer = serializer;
+        store.addPublishListener(this);
+    }
+
+    @Override
+    public void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot) {
+        if (ResourceTypeConstants.LATEST_IDR_RATES.equals(key)) {
+            rows.get(current);
+        }
+    }
+
+    // null when the entry holds no rate table
+    public CrossRateMatrix matrixFor(ResourceEntry entry) {
+        Rows current = rows.get(entry);
+        return current == null ? null : current.matrix;
+    }
+
+    // null when the base is not one of the matrix currencies
+    public SerializedResponse rowFor(ResourceEntry entry, String base) {
+        Rows current = rows.get(entry);
+        if (current == null) {
+            return null;
+        }
+        int row = current.matrix.getIndex().indexOf(base);
+        return row < 0 ? null : current.responses[row];
+    }
+
+    private Rows build(ResourceEntry entry) {
+        RateTable table = RateHistory.rateTable(entry);
+        if (table == null) {
+            return null;
+        }
+        CrossRateMatrix matrix = CrossRateMatrix.from(table);
+        SerializedResponse[] responses = new SerializedResponse[matrix.size()];
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = serializer.serialize(ResourceTypeConstants.LATEST_RATES, new Object[]{
+                    new CrossRatesDto(1d, matrix.getIndex().codeAt(i), matrix.getDate(), matrix.row(i))});
+        }
+        return new Rows(matrix, responses);
+    }
+
+    private static class Rows {
+        private final CrossRateMatrix matrix;
+        private final SerializedResponse[] responses;
+
+        Rows(CrossRateMatrix matrix, SerializedResponse[] responses) {
+            this.matrix = matrix;
+            this.responses = responses;
+        }
+    }
+}
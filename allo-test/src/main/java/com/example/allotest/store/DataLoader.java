@@ -1,28 +1,120 @@
 package com.example.allotest.store;
 
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
 import com.example.allotest.strategy.IDataFetcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class DataLoader implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
     private final Map<String, IDataFetcher> strategies;
     private final DataStore store;
+    private final Duration fetchTimeout;
+    private final SnapshotFileStore snapshotFileStore;
+    private final CircuitBreakerRegistry breakers;
+    private final FetchMetrics fetchMetrics;
+    private volatile LoadReport lastReport;
 
-    public DataLoader(Map<String, IDataFetcher> strategies, DataStore store) {
+    public DataLoader(Map<String, IDataFetcher> strategies,
+                      DataStore store,
+                      @Value("${data.loader.fetch-timeout:10s}") Duration fetchTimeout,
+                      SnapshotFileStore snapshotFileStore,
+                      CircuitBreakerRegistry breakers,
+                      FetchMetrics fetchMetrics) {
         this.strategies = strategies;
         this.store = store;
+        this.fetchTimeout = fetchTimeout;
+        this.snapshotFileStore = snapshotFileStore;
+        this.breakers = breakers;
+        this.fetchMetrics = fetchMetrics;
     }
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
-        strategies.forEach((key, strategy) -> {
-            Object[] data = strategy.fetchData();
-            store.putIntoStore(key, data);
-        });
+        long startedAt = System.nanoTime();
+        // with the last snapshot back from disk the app can serve right away, and the live fetch
+        // replaces it in the background instead of holding up startup
+        if (snapshotFileStore.restoreInto(store)) {
+            store.makeLoaded();
+            logger.info("warm start from snapshot file in {} ms, ready {} ms after JVM start",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+            Thread liveLoad = new Thread(() -> ingest(System.nanoTime()), "data-loader-live");
+            liveLoad.setDaemon(true);
+            liveLoad.start();
+            return;
+        }
+
+        ingest(startedAt);
         store.makeLoaded();
     }
+
+    public LoadReport getLastReport() {
+        return lastReport;
+    }
+
+    private void ingest(long startedAt) {
+        Set<String> loaded = ConcurrentHashMap.newKeySet();
+        Map<String, String> failures = new ConcurrentHashMap<>();
+
+        // every fetcher is subscribed at the same time and gets its own deadline, so one slow
+        // upstream only costs its own timeout instead of delaying the others; nothing here holds a
+        // thread while the requests are in flight. They go through the same breaker as the
+        // scheduled refreshes, so a failing upstream is already counted when those take over
+        Flux.fromIterable(strategies.entrySet())
+                .flatMap(strategy -> breakers.breakerFor(strategy.getKey())
+                        .protect(fetchMetrics.record(strategy.getKey(),
+                                Mono.defer(strategy.getValue()::fetchDataAsync).timeout(fetchTimeout)))
+                        // a response arrives on the client's event loop, which the reactive server
+                        // shares; serializing and the publish listeners' work run off it instead
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(data -> {
+                            store.publish(strategy.getKey(), data);
+                            loaded.add(strategy.getKey());
+                        })
+                        .onErrorResume(e -> {
+                            String reason = describe(e);
+                            failures.put(strategy.getKey(), reason);
+                            store.markStale(strategy.getKey());
+                            logger.error("initial fetch of {} failed: {}", strategy.getKey(), reason);
+                            return Mono.empty();
+                        }), Math.max(1, strategies.size()))
+                .then()
+                .block();
+        if (!loaded.isEmpty()) {
+            snapshotFileStore.save(store.getSnapshot());
+        }
+
+        lastReport = new LoadReport(
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                loaded,
+                failures);
+        logger.info("startup ingestion finished in {} ms, ready {} ms after JVM start (loaded={}, failed={})",
+                lastReport.getDurationMillis(), lastReport.getReadyAfterStartMillis(), loaded, failures.keySet());
+    }
+
+    private String describe(Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            return "timed out after " + fetchTimeout.toMillis() + " ms";
+        }
+        return cause.getClass().getSimpleName() + ": " + cause.getMessage();
+    }
 }
@@ -0,0 +1,125 @@
+package com.example.allotest.store;
+
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.exceptions.CircuitOpenException;
+import com.example.allotest.strategy.CircuitBreaker;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class DataRefreshScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(DataRefreshScheduler.class);
+    private final Map<String, IDataFetcher> strategies;
+    private final DataStore store;
+    private final RefreshProperties properties;
+    private final SnapshotFileStore snapshotFileStore;
+    private final ThreadFactory fetchThreadFactory;
+    private final CircuitBreakerRegistry breakers;
+    private final FetchMetrics fetchMetrics;
+    private final Set<String> retryPending = ConcurrentHashMap.newKeySet();
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+    private volatile ScheduledExecutorService scheduler;
+
+    public DataRefreshScheduler(Map<String, IDataFetcher> strategies,
+                                DataStore store,
+                                RefreshProperties properties,
+                                SnapshotFileStore snapshotFileStore,
+                                ThreadFactory fetchThreadFactory,
+                                CircuitBreakerRegistry breakers,
+                                FetchMetrics fetchMetrics) {
+        this.strategies = strategies;
+        this.store = store;
+        this.properties = properties;
+        this.snapshotFileStore = snapshotFileStore;
+        this.fetchThreadFactory = fetchThreadFactory;
+        this.breakers = breakers;
+        this.fetchMetrics = fetchMetrics;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || strategies.isEmpty()) {
+            return;
+        }
+
+        scheduler = Executors.newScheduledThreadPool(strategies.size(), fetchThreadFactory);
+        strategies.forEach((key, strategy) -> {
+            long interval = properties.intervalFor(key).toMillis();
+            scheduler.scheduleWithFixedDelay(() -> refresh(key), interval, interval, TimeUnit.MILLISECONDS);
+            logger.info("scheduled refresh of {} every {} ms", key, interval);
+        });
+    }
+
+    // on failure the current entry stays and is flagged stale, and instead of waiting a whole interval
+    // the resource is retried once the breaker allows its next (half-open) probe
+    public boolean refresh(String key) {
+        IDataFetcher strategy = strategies.get(key);
+        if (strategy == null) {
+            return false;
+        }
+
+        // the scheduled run and a breaker retry for the same key can come due together; the second one
+        // is dropped, since the run in progress publishes or schedules its own retry either way
+        if (!inProgress.add(key)) {
+            logger.debug("refresh of {} already in progress, skipped", key);
+            return false;
+        }
+        CircuitBreaker breaker = breakers.breakerFor(key);
+        try {
+            Object[] data = breaker.protect(fetchMetrics.record(key, Mono.defer(strategy::fetchDataAsync))).block();
+            DataSnapshot published = store.publish(key, data);
+            snapshotFileStore.save(published);
+            logger.debug("refreshed {} into snapshot version {}", key, published.getVersion());
+            return true;
+        } catch (CircuitOpenException e) {
+            logger.debug("refresh of {} skipped, circuit {}", key, breaker.getState());
+            store.markStale(key);
+            scheduleRetry(key, breaker.getRetryDelay());
+            return false;
+        } catch (Exception e) {
+            // keep serving the current snapshot; the retry or the next scheduled run tries again
+            logger.warn("refresh of {} failed, keeping snapshot version {} (circuit {}): {}",
+                    key, store.getSnapshot().getVersion(), breaker.getState(), e.getMessage());
+            store.markStale(key);
+            scheduleRetry(key, breaker.getRetryDelay());
+            return false;
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    private void scheduleRetry(String key, Duration delay) {
+        ScheduledExecutorService current = scheduler;
+        if (current == null || current.isShutdown() || !retryPending.add(key)) {
+            return;
+        }
+        current.schedule(() -> {
+            retryPending.remove(key);
+            refresh(key);
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.allotest.store;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DataSnapshot {
+    private static final DataSnapshot EMPTY = new DataSnapshot(0L, Instant.EPOCH, Collections.emptyMap());
+
+    private final long version;
+    private final Instant fetchedAt;
+    private final Map<String, ResourceEntry> entries;
+
+    private DataSnapshot(long version, Instant fetchedAt, Map<String, ResourceEntry> entries) {
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+        this.entries = entries;
+    }
+
+    public static DataSnapshot empty() {
+        return EMPTY;
+    }
+
+    public static DataSnapshot restored(long version, Map<String, ResourceEntry> entries) {
+        Instant fetchedAt = Instant.EPOCH;
+        for (ResourceEntry entry : entries.values()) {
+            if (entry.getFetchedAt().isAfter(fetchedAt)) {
+                fetchedAt = entry.getFetchedAt();
+            }
+        }
+        return new DataSnapshot(version, fetchedAt, Collections.unmodifiableMap(new HashMap<>(entries)));
+    }
+
+    public DataSnapshot with(String key, ResourceEntry entry) {
+        Map<String, ResourceEntry> copy = new HashMap<>(entries);
+        copy.put(key, entry);
+        return new DataSnapshot(version + 1, entry.getFetchedAt(), Collections.unmodifiableMap(copy));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public ResourceEntry getEntry(String key) {
+        return entries.get(key);
+    }
+
+    public Map<String, ResourceEntry> getEntries() {
+        return entries;
+    }
+}
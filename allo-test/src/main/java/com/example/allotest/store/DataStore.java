@@ -1,27 +1,201 @@
 package com.example.allotest.store;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
-public class DataStore {
-    private final Map<String, Object[]> store = new ConcurrentHashMap<>();
-    private boolean loaded = false;
+public class DataStore implements MeterBinder {
+    private final AtomicReference<DataSnapshot> snapshot = new AtomicReference<>(DataSnapshot.empty());
+    private final Map<String, Instant> staleSince = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Set<String> instrumentedKeys = ConcurrentHashMap.newKeySet();
+    private final List<PublishListener> listeners = new CopyOnWriteArrayList<>();
+    private final ResponseSerializer serializer;
+    private volatile MeterRegistry registry;
+    private volatile boolean loaded = false;
+
+    public DataStore(ResponseSerializer serializer) {
+        this.serializer = serializer;
+    }
 
     public void putIntoStore(String key, Object[] value) {
         if (!loaded) {
-            store.put(key, value);
+            publish(key, value);
         }
     }
 
     public Object[] getFromStore(String key) {
-        return store.get(key);
+        ResourceEntry entry = getEntry(key);
+        return entry == null ? null : entry.getData();
+    }
+
+    // the lookup every read path goes through; hits and misses are only added up here, the meter
+    // registry reads the sums when it is scraped
+    public ResourceEntry getEntry(String key) {
+        ResourceEntry entry = snapshot.get().getEntry(key);
+        (entry == null ? misses : hits).increment();
+        return entry;
+    }
+
+    // several lookups answered from one snapshot, so they all see the same refresh state; counted
+    // like the same number of getEntry calls
+    public DataSnapshot getSnapshot(Collection<String> keys) {
+        DataSnapshot current = snapshot.get();
+        for (String key : keys) {
+            (current.getEntry(key) == null ? misses : hits).increment();
+        }
+        return current;
+    }
+
+    public DataSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    // readers only ever dereference the current snapshot, so a refresh builds the next one on the
+    // side, response bytes included, and swaps it in with a single reference update
+    public DataSnapshot publish(String key, Object[] value) {
+        Instant fetchedAt = Instant.now();
+        DataSnapshot current;
+        DataSnapshot published;
+        ResourceEntry previous;
+        ResourceEntry comparedWith = null;
+        SerializedResponse response = null;
+        boolean changed;
+        do {
+            // previous and changed are taken from the snapshot this attempt replaces, so a publish of the
+            // same key that wins the race in between is compared against rather than overwritten blindly;
+            // the bytes are only serialized again when that entry differs from the one they were built for
+            current = snapshot.get();
+            previous = current.getEntry(key);
+            if (response == null || previous != comparedWith) {
+                response = serializer.serialize(key, value, previous == null ? null : previous.getResponse());
+                comparedWith = previous;
+            }
+            // an unchanged payload keeps the previous response object; only a change takes the version
+            // this publish gives the snapshot, which is also how listeners are spared refreshes that
+            // brought nothing new
+            changed = previous == null || response != previous.getResponse();
+            published = current.with(key, new ResourceEntry(
+                    value, fetchedAt, response, changed ? current.getVersion() + 1 : previous.getVersion()));
+        } while (!snapshot.compareAndSet(current, published));
+        ResourceEntry entry = published.getEntry(key);
+        staleSince.remove(key);
+        instrument(key);
+        if (changed) {
+            for (PublishListener listener : listeners) {
+                listener.onPublish(key, previous, entry, published);
+            }
+        }
+        return published;
+    }
+
+    public void addPublishListener(PublishListener listener) {
+        listeners.add(listener);
+    }
+
+    // a failed refresh leaves the last good entry in place; it keeps being served, flagged as stale
+    // until a later refresh publishes fresh data
+    public void markStale(String key) {
+        if (snapshot.get().getEntry(key) != null) {
+            staleSince.putIfAbsent(key, Instant.now());
+        }
+    }
+
+    public Instant getStaleSince(String key) {
+        return staleSince.get(key);
+    }
+
+    public boolean isStale(String key) {
+        return staleSince.containsKey(key);
+    }
+
+    // entries read back from disk keep their original fetch time and version, so their age and
+    // later version numbers carry on from before the restart
+    public DataSnapshot restore(long version, Map<String, Object[]> data, Map<String, Instant> fetchedAt) {
+        Map<String, ResourceEntry> entries = new HashMap<>(data.size() * 2);
+        data.forEach((key, value) -> entries.put(key,
+                new ResourceEntry(value, fetchedAt.get(key), serializer.serialize(key, value), version)));
+        DataSnapshot restored = DataSnapshot.restored(version, entries);
+        snapshot.set(restored);
+        data.keySet().forEach(this::instrument);
+        return restored;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
     }
 
     public void makeLoaded() {
         loaded = true;
     }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("finance.store.lookups", hits, LongAdder::sum)
+                .description("Store lookups that found a loaded resource")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("finance.store.lookups", misses, LongAdder::sum)
+                .description("Store lookups for a resource that is not loaded")
+                .tag("result", "miss")
+                .register(registry);
+        TimeGauge.builder("finance.store.snapshot.age", this, TimeUnit.MILLISECONDS,
+                        store -> store.getSnapshot().getVersion() == 0
+                                ? Double.NaN
+                                : millisSince(store.getSnapshot().getFetchedAt()))
+                .description("Time since the current snapshot was last published")
+                .register(registry);
+        this.registry = registry;
+        snapshot.get().getEntries().keySet().forEach(this::instrument);
+    }
+
+    // per-resource gauges are added the first time a resource is published, since the store does not
+    // know its keys up front
+    private void instrument(String key) {
+        MeterRegistry current = registry;
+        if (current == null || !instrumentedKeys.add(key)) {
+            return;
+        }
+        TimeGauge.builder("finance.store.entry.age", this, TimeUnit.MILLISECONDS, store -> {
+                    ResourceEntry entry = store.getSnapshot().getEntry(key);
+                    return entry == null ? Double.NaN : millisSince(entry.getFetchedAt());
+                })
+                .description("Time since the resource was last fetched from upstream")
+                .tag("resourceType", key)
+                .register(current);
+        Gauge.builder("finance.store.entry.stale", this, store -> store.isStale(key) ? 1 : 0)
+                .description("1 while the resource is served from a failed refresh's previous data")
+                .tag("resourceType", key)
+                .register(current);
+    }
+
+    private static double millisSince(Instant instant) {
+        return Math.max(0, Duration.between(instant, Instant.now()).toMillis());
+    }
 }
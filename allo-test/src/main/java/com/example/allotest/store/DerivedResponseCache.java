@@ -0,0 +1,45 @@
+package com.example.allotest.store;
+
+import java.util.function.Function;
+
+// What a listener derives from one resource entry, built once per serialized response of that entry
+// and kept until the entry's response changes. Keyed on the response rather than the entry, because a
+// refresh without changes keeps the response. Reads are one volatile load; builds for a new response
+// are serialized, so a publish and a request racing it build the value once.
+class DerivedResponseCache<T> {
+    private final Function<ResourceEntry, T> build;
+    private volatile Derived<T> derived;
+
+    DerivedResponseCache(Function<ResourceEntry, T> build) {
+        this.build = build;
+    }
+
+    // null when build answers null for the entry, which is not kept
+    T get(ResourceEntry entry) {
+        Derived<T> current = derived;
+        if (current != null && current.source == entry.getResponse()) {
+            return current.value;
+        }
+        synchronized (this) {
+            current = derived;
+            if (current != null && current.source == entry.getResponse()) {
+                return current.value;
+            }
+            T value = build.apply(entry);
+            if (value != null) {
+                derived = new Derived<>(entry.getResponse(), value);
+            }
+            return value;
+        }
+    }
+
+    private static class Derived<T> {
+        private final SerializedResponse source;
+        private final T value;
+
+        Derived(SerializedResponse source, T value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+}
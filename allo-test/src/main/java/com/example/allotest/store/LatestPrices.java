@@ -0,0 +1,51 @@
+package com.example.allotest.store;
+
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.PricesDto;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.PriceTable;
+import org.springframework.stereotype.Component;
+
+// The buy and sell price table priced with latest_idr_rates, serialized once per change so it is
+// served from stored bytes like the rates themselves. An entry restored from disk never went through
+// publish and is serialized on first use.
+@Component
+public class LatestPrices implements PublishListener {
+    private final ResponseSerializer serializer;
+    private final DerivedResponseCache<SerializedResponse> priced = new DerivedResponseCache<>(this::build);
+
+    public LatestPrices(DataStore store, ResponseSerializer serializer) {
+        this.serializer = serializer;
+        store.addPublishListener(this);
+    }
+
+    @Override
+    public void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot) {
+        if (ResourceTypeConstants.LATEST_IDR_RATES.equals(key)) {
+            responseFor(current);
+        }
+    }
+
+    // null when the entry holds no priced table
+    public SerializedResponse responseFor(ResourceEntry entry) {
+        return priced.get(entry);
+    }
+
+    private SerializedResponse build(ResourceEntry entry) {
+        LatestRates latestRates = latestRates(entry);
+        if (latestRates == null || latestRates.getPriceTable() == null) {
+            return null;
+        }
+        PriceTable prices = latestRates.getPriceTable();
+        return serializer.serialize(ResourceTypeConstants.LATEST_IDR_PRICES, new Object[]{
+                new PricesDto(latestRates.getBase(), latestRates.getDate(), prices.toMap())});
+    }
+
+    private static LatestRates latestRates(ResourceEntry entry) {
+        if (entry == null) {
+            return null;
+        }
+        Object[] data = entry.getData();
+        return data != null && data.length > 0 && data[0] instanceof LatestRates latestRates ? latestRates : null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.allotest.store;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+public class LoadReport {
+    private final long durationMillis;
+    private final long readyAfterStartMillis;
+    private final Set<String> loaded;
+    private final Map<String, String> failures;
+
+    public LoadReport(long durationMillis, long readyAfterStartMillis, Set<String> loaded, Map<String, String> failures) {
+        this.durationMillis = durationMillis;
+        this.readyAfterStartMillis = readyAfterStartMillis;
+        this.loaded = Collections.unmodifiableSet(loaded);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getReadyAfterStartMillis() {
+        return readyAfterStartMillis;
+    }
+
+    public Set<String> getLoaded() {
+        return loaded;
+    }
+
+    public Map<String, String> getFailures() {
+        return failures;
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.allotest.store;
+
+// told about each publish that changed a resource's content, after the new snapshot is visible to
+// readers; previous is null for the first load of the resource
+@FunctionalInterface
+public interface PublishListener {
+    void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot);
+}
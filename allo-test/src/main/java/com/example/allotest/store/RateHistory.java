@@ -0,0 +1,102 @@
+package com.example.allotest.store;
+
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The last few versions of latest_idr_rates, so a client can be sent what changed since the version it
+// holds. Whole rate tables are kept rather than the diffs between them: a delta over several refreshes
+// is then one exact comparison, a rate that moved and moved back drops out, and thirty doubles per
+// version is as small as a diff would be.
+@Component
+public class RateHistory implements PublishListener {
+    private final long[] versions;
+    private final RateTable[] tables;
+    private int newest = -1;
+    private int size;
+    // serialized deltas of the current latest_idr_rates by the since they answer; pollers on the same
+    // version keep asking the same question, so its bytes, hash and gzip are only built once. Least
+    // recently used first out, as many as there are versions in the history.
+    private final Map<Long, SerializedResponse> deltas;
+    private long deltasVersion = -1;
+
+    public RateHistory(DataStore store, DeltaProperties properties) {
+        int capacity = Math.max(1, properties.getHistory());
+        this.versions = new long[capacity];
+        this.tables = new RateTable[capacity];
+        this.deltas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SerializedResponse> eldest) {
+                return size() > capacity;
+            }
+        };
+        store.addPublishListener(this);
+    }
+
+    @Override
+    public synchronized void onPublish(String key, ResourceEntry previous, ResourceEntry current, DataSnapshot snapshot) {
+        if (!ResourceTypeConstants.LATEST_IDR_RATES.equals(key)) {
+            return;
+        }
+        // an entry restored from disk was never published, so it joins the history with the first
+        // refresh that replaces it
+        if (size == 0 && rateTable(previous) != null) {
+            add(previous.getVersion(), rateTable(previous));
+        }
+        RateTable table = rateTable(current);
+        if (table != null) {
+            add(current.getVersion(), table);
+        }
+        deltas.clear();
+        deltasVersion = current.getVersion();
+    }
+
+    // the table a client saw at the given snapshot version: the newest one published at or before it.
+    // Null when that table has already been overwritten or nothing is recorded yet, in which case the
+    // client needs the full payload.
+    public synchronized RateTable tableAt(long version) {
+        for (int n = 0; n < size; n++) {
+            int i = Math.floorMod(newest - n, versions.length);
+            if (versions[i] <= version) {
+                return tables[i];
+            }
+        }
+        return null;
+    }
+
+    // the delta from since to the entry at entryVersion, if one was serialized and that entry is still current
+    public synchronized SerializedResponse cachedDelta(long since, long entryVersion) {
+        return entryVersion == deltasVersion ? deltas.get(since) : null;
+    }
+
+    public synchronized void cacheDelta(long since, long entryVersion, SerializedResponse delta) {
+        if (entryVersion < deltasVersion) {
+            return;
+        }
+        if (entryVersion > deltasVersion) {
+            deltas.clear();
+            deltasVersion = entryVersion;
+        }
+        deltas.put(since, delta);
+    }
+
+    private void add(long version, RateTable table) {
+        newest = (newest + 1) % versions.length;
+        versions[newest] = version;
+        tables[newest] = table;
+        size = Math.min(size + 1, versions.length);
+    }
+
+    // the rate table inside a latest_idr_rates entry, or null for any other payload
+    public static RateTable rateTable(ResourceEntry entry) {
+        if (entry == null || entry.getData() == null || entry.getData().length == 0) {
+            return null;
+        }
+        return entry.getData()[0] instanceof LatestRates latestRates ? latestRates.getRateTable() : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.allotest.store;
+
+import java.time.Instant;
+
+public class ResourceEntry {
+    private final Object[] data;
+    private final Instant fetchedAt;
+    private final SerializedResponse response;
+    private final long version;
+
+    // version is the snapshot version that last changed this resource's content; a refresh that brings
+    // the same payload again keeps it
+    public ResourceEntry(Object[] data, Instant fetchedAt, SerializedResponse response, long version) {
+        this.data = data;
+        this.fetchedAt = fetchedAt;
+        this.response = response;
+        this.version = version;
+    }
+
+    public Object[] getData() {
+        return data;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public SerializedResponse getResponse() {
+        return response;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.allotest.store;
+
+import com.example.allotest.constants.ApiResponseConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.dtos.BaseResponseDto;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.util.RawValue;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class ResponseSerializer {
+    private static final int CONTENT_HASH_BYTES = 16;
+    private static final byte[] DATA_KEY = "\"data\":".getBytes(StandardCharsets.UTF_8);
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private final JsonMapper jsonMapper;
+    private final Map<MediaType, ObjectMapper> binaryMappers;
+
+    public ResponseSerializer(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        this.binaryMappers = Map.of(
+                MediaType.APPLICATION_CBOR, CBORMapper.builder().build(),
+                APPLICATION_SMILE, SmileMapper.builder().build());
+    }
+
+    public Set<MediaType> getBinaryTypes() {
+        return binaryMappers.keySet();
+    }
+
+    // the same envelope as the JSON bytes in CBOR or Smile, where rates are written as 8-byte binary
+    // doubles instead of decimal text; encoded once per response and media type
+    public byte[] encode(SerializedResponse response, MediaType mediaType) {
+        ObjectMapper mapper = binaryMappers.get(mediaType);
+        if (mapper == null) {
+            throw new IllegalArgumentException("no binary encoding for " + mediaType);
+        }
+        return response.getEncoded(mediaType, type -> {
+            BaseResponseDto<Object[]> envelope = new BaseResponseDto<>(
+                    ApiResponseConstants.OK_STATUS_CODE,
+                    ApiResponseConstants.OK_STATUS_MESSAGE,
+                    response.getResourceType(),
+                    response.getData());
+            // the JSON envelope's timestamp, so every encoding of one response says the same thing
+            envelope.setTimestamp(response.getTimestamp());
+            return mapper.writeValueAsBytes(envelope);
+        });
+    }
+
+    public SerializedResponse serialize(String resourceType, Object[] data) {
+        return serialize(resourceType, data, null);
+    }
+
+    // when the payload hashes the same as the previous one the previous bytes are kept as they are,
+    // envelope timestamp included, so the ETag keeps pointing at exactly one representation
+    public SerializedResponse serialize(String resourceType, Object[] data, SerializedResponse previous) {
+        byte[] dataJson = jsonMapper.writeValueAsBytes(data);
+        String contentHash = hash(dataJson);
+        if (previous != null && previous.getContentHash().equals(contentHash)) {
+            return previous;
+        }
+
+        BaseResponseDto<RawValue> envelope = new BaseResponseDto<>(
+                ApiResponseConstants.OK_STATUS_CODE,
+                ApiResponseConstants.OK_STATUS_MESSAGE,
+                resourceType,
+                new RawValue(new String(dataJson, StandardCharsets.UTF_8)));
+        byte[] json = jsonMapper.writeValueAsBytes(envelope);
+        int dataOffset = dataOffset(json, dataJson);
+        return new SerializedResponse(resourceType, data, json, gzip(json), contentHash, dataOffset, dataJson.length,
+                envelope.getTimestamp());
+    }
+
+    // several resources in one envelope, all taken from the given snapshot: each resource's data is
+    // copied from the bytes serialized when it was published, nothing is serialized again. The version
+    // is the newest of the requested resources' entry versions and the timestamp the newest of their
+    // envelope timestamps, so the bytes depend only on those entries and the given stale flags, which
+    // is exactly what the content hash covers; publishes of other resources leave the body, and with
+    // it the ETag, alone.
+    public SerializedResponse serializeBatch(DataSnapshot snapshot, List<String> resourceTypes, Set<String> stale) {
+        StringBuilder hashInput = new StringBuilder();
+        Instant timestamp = null;
+        int size = 256;
+        for (String resourceType : resourceTypes) {
+            ResourceEntry entry = snapshot.getEntry(resourceType);
+            hashInput.append('|').append(resourceType).append('=')
+                    .append(entry == null ? "-" : entry.getResponse().getContentHash());
+            if (entry != null) {
+                Instant published = entry.getResponse().getTimestamp();
+                timestamp = timestamp == null || published.isAfter(timestamp) ? published : timestamp;
+                size += entry.getResponse().getDataLength() + resourceType.length() + 4;
+                if (stale.contains(resourceType)) {
+                    hashInput.append(":stale");
+                }
+            }
+        }
+        // with none of them loaded yet there is no entry to take the time from
+        if (timestamp == null) {
+            timestamp = Instant.now();
+        }
+        hashInput.append('@').append(timestamp);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        int[] data;
+        try (JsonGenerator generator = jsonMapper.createGenerator(out)) {
+            data = writeBatch(generator, out, snapshot, resourceTypes, stale, timestamp, (json, response) -> {
+                flushRaw(json);
+                out.write(response.getJson(), response.getDataOffset(), response.getDataLength());
+            });
+        }
+        byte[] json = out.toByteArray();
+        return new SerializedResponse(ResourceTypeConstants.BATCH, null, json, gzip(json),
+                hash(hashInput.toString().getBytes(StandardCharsets.UTF_8)), data[0], data[1], timestamp);
+    }
+
+    // the batch envelope in CBOR or Smile, with the members and timestamp of the JSON one; the
+    // published JSON bytes cannot be copied into a binary document, so each resource's data is encoded
+    // from its model
+    public byte[] encodeBatch(DataSnapshot snapshot, List<String> resourceTypes, Set<String> stale,
+                              SerializedResponse batch, MediaType mediaType) {
+        ObjectMapper mapper = binaryMappers.get(mediaType);
+        if (mapper == null) {
+            throw new IllegalArgumentException("no binary encoding for " + mediaType);
+        }
+        return batch.getEncoded(mediaType, type -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(batch.getJson().length);
+            try (JsonGenerator generator = mapper.createGenerator(out)) {
+                writeBatch(generator, out, snapshot, resourceTypes, stale, batch.getTimestamp(),
+                        (binary, response) -> binary.writePOJO(response.getData()));
+            }
+            return out.toByteArray();
+        });
+    }
+
+    // same members in the same order as a serialized BaseResponseDto; answers where the data object
+    // starts in out and how long it is
+    private static int[] writeBatch(JsonGenerator generator, ByteArrayOutputStream out, DataSnapshot snapshot,
+                                    List<String> resourceTypes, Set<String> stale, Instant timestamp,
+                                    BiConsumer<JsonGenerator, SerializedResponse> resourceData) {
+        long version = 0;
+        for (String resourceType : resourceTypes) {
+            ResourceEntry entry = snapshot.getEntry(resourceType);
+            if (entry != null) {
+                version = Math.max(version, entry.getVersion());
+            }
+        }
+        generator.writeStartObject();
+        generator.writeStringProperty("code", ApiResponseConstants.OK_STATUS_CODE);
+        generator.writeName("data");
+        generator.writeStartObject();
+        generator.flush();
+        int dataOffset = out.size() - 1;
+        generator.writeNumberProperty("version", version);
+        generator.writeName("stale");
+        generator.writeStartArray();
+        for (String resourceType : resourceTypes) {
+            if (stale.contains(resourceType) && snapshot.getEntry(resourceType) != null) {
+                generator.writeString(resourceType);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeName("resources");
+        generator.writeStartObject();
+        for (String resourceType : resourceTypes) {
+            generator.writeName(resourceType);
+            ResourceEntry entry = snapshot.getEntry(resourceType);
+            if (entry == null) {
+                generator.writeNull();
+            } else {
+                resourceData.accept(generator, entry.getResponse());
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.flush();
+        int dataLength = out.size() - dataOffset;
+        generator.writeStringProperty("message", ApiResponseConstants.OK_STATUS_MESSAGE);
+        generator.writeStringProperty("resourceType", ResourceTypeConstants.BATCH);
+        generator.writePOJOProperty("timestamp", timestamp);
+        generator.writeEndObject();
+        return new int[]{dataOffset, dataLength};
+    }
+
+    // the data value was written verbatim after the first "data" key; the envelope members before
+    // it are plain strings, so the key cannot show up earlier
+    private static int dataOffset(byte[] json, byte[] dataJson) {
+        int keyAt = indexOf(json, DATA_KEY);
+        int offset = keyAt + DATA_KEY.length;
+        if (keyAt < 0 || offset + dataJson.length > json.length
+                || !Arrays.equals(json, offset, offset + dataJson.length, dataJson, 0, dataJson.length)) {
+            throw new IllegalStateException("data member not found in the response envelope");
+        }
+        return offset;
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target) {
+        outer:
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    // lets the generator write the separator that comes before the next value, then hands the stream
+    // over so the caller can append bytes that are already JSON
+    private static void flushRaw(JsonGenerator generator) {
+        generator.writeRawValue("");
+        generator.flush();
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, CONTENT_HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
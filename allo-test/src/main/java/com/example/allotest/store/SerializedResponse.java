@@ -0,0 +1,85 @@
+package com.example.allotest.store;
+
+import org.springframework.http.MediaType;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class SerializedResponse {
+    private final String resourceType;
+    private final Object[] data;
+    private final byte[] json;
+    private final byte[] gzip;
+    private final String contentHash;
+    private final int dataOffset;
+    private final int dataLength;
+    private final Instant timestamp;
+    private final Map<MediaType, byte[]> encodings = new ConcurrentHashMap<>(4);
+
+    // where the data member's value sits inside json, so it can be copied out by offset and length
+    // instead of being kept a second time; resourceType and data are kept for the other encodings
+    public SerializedResponse(String resourceType, Object[] data, byte[] json, byte[] gzip, String contentHash,
+                              int dataOffset, int dataLength, Instant timestamp) {
+        this.resourceType = resourceType;
+        this.data = data;
+        this.json = json;
+        this.gzip = gzip;
+        this.contentHash = contentHash;
+        this.dataOffset = dataOffset;
+        this.dataLength = dataLength;
+        this.timestamp = timestamp;
+    }
+
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public Object[] getData() {
+        return data;
+    }
+
+    // a binary encoding of the same envelope, encoded the first time a client asks for it and then
+    // kept for as long as this response is served
+    public byte[] getEncoded(MediaType mediaType, Function<MediaType, byte[]> encoder) {
+        return encodings.computeIfAbsent(mediaType, encoder);
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public int getDataOffset() {
+        return dataOffset;
+    }
+
+    public int getDataLength() {
+        return dataLength;
+    }
+
+    // the envelope timestamp written into json
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public String getEtag() {
+        return "\"" + contentHash + "\"";
+    }
+
+    public String getGzipEtag() {
+        return "\"" + contentHash + "-gzip\"";
+    }
+
+    public String getEtag(MediaType mediaType) {
+        return "\"" + contentHash + "-" + mediaType.getSubtype() + "\"";
+    }
+}
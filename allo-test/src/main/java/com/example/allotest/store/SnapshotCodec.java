@@ -0,0 +1,327 @@
+package com.example.allotest.store;
+
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.HistoricalSeries;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binary layout: header (magic, format, snapshot version, entry count) followed by one record per
+// resource (key, fetchedAt millis, tagged Object[]). Rate tables and historical columns are written
+// as raw primitive arrays so reading them back is a bulk copy rather than a parse.
+public class SnapshotCodec {
+    static final int MAGIC = 0x414C4C4F;
+    static final int FORMAT_VERSION = 2;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte LONG = 3;
+    private static final byte INT = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte MAP = 6;
+    private static final byte LIST = 7;
+    private static final byte OBJECT_ARRAY = 8;
+    private static final byte LATEST_RATES = 9;
+    private static final byte HISTORICAL_RATES = 10;
+
+    private SnapshotCodec() {
+    }
+
+    public static byte[] encode(DataSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshot.getVersion());
+            out.writeInt(snapshot.getEntries().size());
+            for (Map.Entry<String, ResourceEntry> entry : snapshot.getEntries().entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue().getFetchedAt().toEpochMilli());
+                writeValue(out, entry.getValue().getData());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static Decoded decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 20 || buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("not a snapshot file");
+        }
+        int format = buffer.getInt();
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("unsupported snapshot format " + format);
+        }
+
+        long version = buffer.getLong();
+        int count = buffer.getInt();
+        Map<String, Object[]> data = new LinkedHashMap<>(count * 2);
+        Map<String, Instant> fetchedAt = new LinkedHashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String key = readString(buffer);
+            fetchedAt.put(key, Instant.ofEpochMilli(buffer.getLong()));
+            data.put(key, (Object[]) readValue(buffer));
+        }
+        return new Decoded(version, data, fetchedAt);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INT);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Number number) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(number.doubleValue());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof Object[] array) {
+            out.writeByte(OBJECT_ARRAY);
+            out.writeInt(array.length);
+            for (Object item : array) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof LatestRates latestRates) {
+            out.writeByte(LATEST_RATES);
+            writeLatestRates(out, latestRates);
+        } else if (value instanceof HistoricalRates historicalRates) {
+            out.writeByte(HISTORICAL_RATES);
+            writeHistoricalRates(out, historicalRates);
+        } else {
+            throw new IllegalArgumentException("cannot encode " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte tag = in.get();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INT:
+                return in.getInt();
+            case LONG:
+                return in.getLong();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            case MAP: {
+                int size = in.getInt();
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    map.put(readString(in), readValue(in));
+                }
+                return map;
+            }
+            case LIST: {
+                int size = in.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case OBJECT_ARRAY: {
+                Object[] array = new Object[in.getInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readValue(in);
+                }
+                return array;
+            }
+            case LATEST_RATES:
+                return readLatestRates(in);
+            case HISTORICAL_RATES:
+                return readHistoricalRates(in);
+            default:
+                throw new IllegalArgumentException("unknown value tag " + tag);
+        }
+    }
+
+    private static void writeLatestRates(DataOutputStream out, LatestRates latestRates) throws IOException {
+        out.writeDouble(latestRates.getSpreadFactor());
+        Double usdBuySpread = latestRates.getUsdBuySpreadIdr();
+        out.writeBoolean(usdBuySpread != null);
+        if (usdBuySpread != null) {
+            out.writeDouble(usdBuySpread);
+        }
+
+        RateTable table = latestRates.getRateTable();
+        out.writeBoolean(table != null);
+        if (table == null) {
+            return;
+        }
+        writeString(out, table.getDate());
+        writeString(out, table.getBase());
+        out.writeDouble(table.getAmount());
+        out.writeInt(table.size());
+        for (int i = 0; i < table.size(); i++) {
+            writeString(out, table.codeAt(i));
+        }
+        for (int i = 0; i < table.size(); i++) {
+            out.writeDouble(table.rateAt(i));
+        }
+
+        PriceTable prices = latestRates.getPriceTable();
+        out.writeBoolean(prices != null);
+        if (prices == null) {
+            return;
+        }
+        for (int i = 0; i < prices.size(); i++) {
+            out.writeDouble(prices.spreadAt(i));
+        }
+        for (int i = 0; i < prices.size(); i++) {
+            out.writeDouble(prices.buyAt(i));
+        }
+        for (int i = 0; i < prices.size(); i++) {
+            out.writeDouble(prices.sellAt(i));
+        }
+    }
+
+    private static LatestRates readLatestRates(ByteBuffer in) {
+        double spreadFactor = in.getDouble();
+        Double usdBuySpread = in.get() != 0 ? in.getDouble() : null;
+        if (in.get() == 0) {
+            return new LatestRates(null, spreadFactor, usdBuySpread);
+        }
+
+        String date = readString(in);
+        String base = readString(in);
+        double amount = in.getDouble();
+        String[] codes = new String[in.getInt()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = readString(in);
+        }
+        double[] rates = readDoubles(in, codes.length);
+        RateTable table = new RateTable(date, base, amount, codes, rates);
+        if (in.get() == 0) {
+            return new LatestRates(table, spreadFactor, usdBuySpread);
+        }
+
+        // the prices are restored as they were published rather than repriced with today's overrides
+        double[] spreads = readDoubles(in, codes.length);
+        double[] buy = readDoubles(in, codes.length);
+        double[] sell = readDoubles(in, codes.length);
+        return new LatestRates(table, spreadFactor, usdBuySpread, new PriceTable(table.getIndex(), spreads, buy, sell));
+    }
+
+    private static double[] readDoubles(ByteBuffer in, int length) {
+        double[] values = new double[length];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + length * Double.BYTES);
+        return values;
+    }
+
+    private static void writeHistoricalRates(DataOutputStream out, HistoricalRates historicalRates) throws IOException {
+        writeString(out, historicalRates.getBase());
+        out.writeInt(historicalRates.seriesCount());
+        for (int s = 0; s < historicalRates.seriesCount(); s++) {
+            HistoricalSeries series = historicalRates.seriesAt(s);
+            writeString(out, series.getCurrency());
+            out.writeInt(series.size());
+            for (int i = 0; i < series.size(); i++) {
+                out.writeInt(series.dayAt(i));
+            }
+            for (int i = 0; i < series.size(); i++) {
+                out.writeDouble(series.rateAt(i));
+            }
+        }
+    }
+
+    private static HistoricalRates readHistoricalRates(ByteBuffer in) {
+        String base = readString(in);
+        HistoricalSeries[] series = new HistoricalSeries[in.getInt()];
+        for (int s = 0; s < series.length; s++) {
+            String currency = readString(in);
+            int size = in.getInt();
+            int[] days = new int[size];
+            in.asIntBuffer().get(days);
+            in.position(in.position() + size * Integer.BYTES);
+            double[] rates = new double[size];
+            in.asDoubleBuffer().get(rates);
+            in.position(in.position() + size * Double.BYTES);
+            series[s] = new HistoricalSeries(currency, days, rates);
+        }
+        return new HistoricalRates(base, series);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static class Decoded {
+        private final long version;
+        private final Map<String, Object[]> data;
+        private final Map<String, Instant> fetchedAt;
+
+        Decoded(long version, Map<String, Object[]> data, Map<String, Instant> fetchedAt) {
+            this.version = version;
+            this.data = data;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public Map<String, Object[]> getData() {
+            return data;
+        }
+
+        public Map<String, Instant> getFetchedAt() {
+            return fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.allotest.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class SnapshotFileStore {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotFileStore.class);
+    private final boolean enabled;
+    private final Path path;
+    private long lastSavedVersion = -1;
+    private Map<String, String> lastSavedHashes = Map.of();
+
+    public SnapshotFileStore(@Value("${data.snapshot.enabled:false}") boolean enabled,
+                             @Value("${data.snapshot.path:data/snapshot.bin}") Path path) {
+        this.enabled = enabled;
+        this.path = path;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // written to a sibling temp file and moved over the old one, so a crash mid-write never
+    // leaves a truncated snapshot behind. The snapshot version moves on with every publish, even one
+    // that brought the same payload again, so the file is only rewritten when some entry's content
+    // differs from what was last written.
+    public synchronized void save(DataSnapshot snapshot) {
+        if (!enabled || snapshot.getEntries().isEmpty() || snapshot.getVersion() <= lastSavedVersion) {
+            return;
+        }
+        Map<String, String> hashes = new HashMap<>(snapshot.getEntries().size() * 2);
+        snapshot.getEntries().forEach((key, entry) -> hashes.put(key, entry.getResponse().getContentHash()));
+        if (hashes.equals(lastSavedHashes)) {
+            logger.debug("snapshot version {} has no new content, {} left as it is", snapshot.getVersion(), path);
+            return;
+        }
+
+        try {
+            byte[] bytes = SnapshotCodec.encode(snapshot);
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastSavedVersion = snapshot.getVersion();
+            lastSavedHashes = hashes;
+            logger.debug("saved snapshot version {} ({} bytes) to {}", snapshot.getVersion(), bytes.length, path);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("could not save snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    public boolean restoreInto(DataStore store) {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SnapshotCodec.Decoded decoded = SnapshotCodec.decode(buffer);
+            store.restore(decoded.getVersion(), decoded.getData(), decoded.getFetchedAt());
+            synchronized (this) {
+                lastSavedVersion = decoded.getVersion();
+            }
+            logger.info("restored snapshot version {} with {} from {}",
+                    decoded.getVersion(), decoded.getData().keySet(), path);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("ignoring unreadable snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+}
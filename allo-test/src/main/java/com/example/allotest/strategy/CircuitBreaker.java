@@ -0,0 +1,119 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.exceptions.CircuitOpenException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+// Closed: calls go through and consecutive failures are counted. Open: calls fail immediately
+// without touching the upstream. Once the open period has passed, a single probe call is let
+// through (half-open); success closes the breaker, failure opens it again for twice as long,
+// up to the configured maximum.
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long baseOpenNanos;
+    private final long maxOpenNanos;
+    private final LongSupplier nanoTime;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openNanos;
+    private long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration maxOpenDuration) {
+        this(name, failureThreshold, openDuration, maxOpenDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, Duration maxOpenDuration, LongSupplier nanoTime) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpenNanos = openDuration.toNanos();
+        this.maxOpenNanos = Math.max(baseOpenNanos, maxOpenDuration.toNanos());
+        this.nanoTime = nanoTime;
+        this.openNanos = baseOpenNanos;
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.error(new CircuitOpenException("circuit open for " + name, name, getRetryDelay()));
+            }
+            // a cancelled probe (caller timeout) counts as a failure, otherwise the breaker would
+            // stay half-open with nobody left to report back
+            AtomicBoolean reported = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (reported.compareAndSet(false, true)) {
+                            onSuccess();
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (reported.compareAndSet(false, true)) {
+                            onFailure();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (reported.compareAndSet(false, true)) {
+                            onFailure();
+                        }
+                    });
+        });
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openNanos = baseOpenNanos;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            openNanos = Math.min(maxOpenNanos, openNanos * 2);
+            open();
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // how long until a call would be let through again: the rest of the open period, or the base
+    // open duration as a retry pause while still closed
+    public synchronized Duration getRetryDelay() {
+        if (state == State.OPEN) {
+            return Duration.ofNanos(Math.max(0, openNanos - (nanoTime.getAsLong() - openedAt)));
+        }
+        return Duration.ofNanos(baseOpenNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// one breaker per fetcher, shared by the refresh scheduler and on-demand fetches, so a failing
+// upstream seen by either path stops both
+@Component
+public class CircuitBreakerRegistry {
+    private final CircuitBreakerProperties properties;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(CircuitBreakerProperties properties) {
+        this.properties = properties;
+    }
+
+    public CircuitBreaker breakerFor(String resourceType) {
+        return breakers.computeIfAbsent(resourceType, name -> new CircuitBreaker(name,
+                properties.getFailureThreshold(), properties.getOpenDuration(), properties.getMaxOpenDuration()));
+    }
+
+    public Map<String, CircuitBreaker> getBreakers() {
+        return Map.copyOf(breakers);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.allotest.strategy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// One timer per fetcher and outcome around every upstream call, whichever path made it (startup
+// load, scheduled refresh or on-demand query). The timers are looked up once per resource type and
+// reused, so recording costs a clock read and a histogram update.
+@Component
+public class FetchMetrics {
+    static final String TIMER_NAME = "finance.fetcher.duration";
+    private final MeterRegistry registry;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public FetchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public <T> Mono<T> record(String resourceType, Mono<T> fetch) {
+        return Mono.defer(() -> {
+            Timer[] outcomes = timersFor(resourceType);
+            long startedAt = System.nanoTime();
+            return fetch
+                    .doOnSuccess(value -> outcomes[0].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> outcomes[1].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    private Timer[] timersFor(String resourceType) {
+        return timers.computeIfAbsent(resourceType, type -> new Timer[]{
+                timer(type, "success"),
+                timer(type, "failure")
+        });
+    }
+
+    private Timer timer(String resourceType, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Time taken by one upstream fetch")
+                .tag("resourceType", resourceType)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -1,10 +1,18 @@
 package com.example.allotest.strategy;
 
+import com.example.allotest.constants.FetchParamConstants;
+import com.example.allotest.constants.ResourceTypeConstants;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-@Component("historical_idr_usd")
+import java.util.Map;
+
+@Component(ResourceTypeConstants.HISTORICAL_IDR_USD)
 public class HistoricalFetcher implements IDataFetcher {
+    private static final String DEFAULT_START_DATE = "2024-01-01";
+    private static final String DEFAULT_END_DATE = "2024-01-05";
+    private static final String DEFAULT_TO_CURRENCY = "USD";
     private final WebClient webClient;
 
     public HistoricalFetcher(WebClient webClient) {
@@ -12,11 +20,22 @@ public class HistoricalFetcher implements IDataFetcher {
     }
 
     @Override
-    public Object[] fetchData() {
-        return new Object[]{webClient.get()
-                .uri("/2024-01-01..2024-01-05?from=IDR&to=USD")
+    public Mono<Object[]> fetchDataAsync() {
+        return fetchDataAsync(Map.of());
+    }
+
+    // an empty end date leaves the range open, so Frankfurter answers up to its latest publication
+    @Override
+    public Mono<Object[]> fetchDataAsync(Map<String, String> params) {
+        String start = params.getOrDefault(FetchParamConstants.START_DATE, DEFAULT_START_DATE);
+        String end = params.getOrDefault(FetchParamConstants.END_DATE,
+                params.containsKey(FetchParamConstants.START_DATE) ? "" : DEFAULT_END_DATE);
+        String to = params.getOrDefault(FetchParamConstants.TO_CURRENCY, DEFAULT_TO_CURRENCY);
+        return webClient.get()
+                .uri("/" + start + ".." + end + "?from=IDR&to=" + to)
                 .retrieve()
                 .bodyToMono(Object.class)
-                .block()};
+                .map(response -> new Object[]{response})
+                .defaultIfEmpty(new Object[]{null});
     }
 }
@@ -0,0 +1,60 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.model.HistoricalRates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@Component(ResourceTypeConstants.HISTORICAL_IDR_SERIES)
+public class HistoricalSeriesFetcher implements IDataFetcher {
+    @Value("${historical.series.lookback-days:730}")
+    private int lookbackDays = 730;
+    // a business day of ~30 rates is well under 1KB; twice that leaves room for more currencies
+    private static final int BYTES_PER_DAY = 2048;
+    private static final int MIN_BODY_BYTES = 256 * 1024;
+    private final WebClient webClient;
+
+    public HistoricalSeriesFetcher(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    // an open-ended range returns every business day from the start date up to the latest
+    // publication for all currencies quoted against IDR; at two years by thirty currencies the body
+    // is streamed into the columns rather than decoded into a map per day first
+    @Override
+    public Mono<Object[]> fetchDataAsync() {
+        LocalDate start = LocalDate.now(ZoneOffset.UTC).minusDays(lookbackDays);
+        return webClient.get()
+                .uri("/" + start + "..?from=IDR")
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .as(body -> DataBufferUtils.join(body, maxBodyBytes()))
+                .map(HistoricalSeriesFetcher::decode)
+                .defaultIfEmpty(new HistoricalRates.Builder("IDR").build())
+                .map(historicalRates -> new Object[]{historicalRates});
+    }
+
+    // the body grows with the lookback, so its limit is sized from it rather than taken from the
+    // client-wide codec buffer (256KB unless frankfurter.api.max-in-memory-size raises it), which a
+    // two-year series already exceeds
+    int maxBodyBytes() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_BODY_BYTES, (long) lookbackDays * BYTES_PER_DAY));
+    }
+
+    // parsed straight off the joined buffer, which for Netty is a composite of the received chunks, so
+    // the body is held once rather than copied into an array before decoding starts
+    private static HistoricalRates decode(DataBuffer buffer) {
+        try {
+            return RatesJsonDecoder.decodeHistorical(buffer.asInputStream());
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -1,5 +1,19 @@
 package com.example.allotest.strategy;
 
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
 public interface IDataFetcher {
-    Object[] fetchData();
+    Mono<Object[]> fetchDataAsync();
+
+    // fetchers that take parameters (a date range, a target currency) override this, the rest ignore them
+    default Mono<Object[]> fetchDataAsync(Map<String, String> params) {
+        return fetchDataAsync();
+    }
+
+    // blocking adapter for callers that already run on their own thread, never call it from an event loop
+    default Object[] fetchData() {
+        return fetchDataAsync().block();
+    }
 }
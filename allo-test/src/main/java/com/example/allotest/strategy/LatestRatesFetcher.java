@@ -1,63 +1,51 @@
 package com.example.allotest.strategy;
 
+import com.example.allotest.constants.ResourceTypeConstants;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-@Component("latest_idr_rates")
+@Component(ResourceTypeConstants.LATEST_IDR_RATES)
 public class LatestRatesFetcher implements IDataFetcher {
     @Value("${github.username}")
     private String githubUsername;
     private final WebClient webClient;
+    private final PricingEngine pricingEngine;
 
-    public LatestRatesFetcher(WebClient webClient) {
+    public LatestRatesFetcher(WebClient webClient, PricingEngine pricingEngine) {
         this.webClient = webClient;
+        this.pricingEngine = pricingEngine;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
-    public Object[] fetchData() {
-        Object[] obj = new Object[]{webClient.get()
+    public Mono<Object[]> fetchDataAsync() {
+        return webClient.get()
                 .uri("/latest?base=IDR")
                 .retrieve()
-                .bodyToMono(Object.class)
-                .block()};
-
-        LinkedHashMap<String, Double> valueFromObj = (LinkedHashMap<String, Double>) obj[0];
-        Map<String, Object> ratesIntoMap = new HashMap<>();
-        Map<String, Object> valueIntoMap = new HashMap<>();
-        double usdRates = 0d;
-        if (valueFromObj != null && valueFromObj.get("rates") != null) {
-            valueIntoMap.put("amount", valueFromObj.get("amount"));
-            valueIntoMap.put("base", valueFromObj.get("base"));
-            valueIntoMap.put("date", valueFromObj.get("date"));
-            ratesIntoMap.put("rates", valueFromObj.get("rates"));
-            
-            LinkedHashMap<String, Double> rates = (LinkedHashMap<String, Double>) ratesIntoMap.get("rates");
-            Double usdRate = rates.get("USD");
-            if (usdRate != null) {
-                usdRates = usdRate;
-            }
-        }
+                .bodyToMono(byte[].class)
+                .map(body -> toLatestRates(RatesJsonDecoder.decodeLatest(body)))
+                .switchIfEmpty(Mono.fromSupplier(() -> toLatestRates(null)))
+                .map(latestRates -> new Object[]{latestRates});
+    }
 
+    LatestRates toLatestRates(RateTable rateTable) {
         double spreadFactor = calculateSpreadFactor(githubUsername);
-        double calculatedValue = calculateBuySpreadFromUSDtoIDR(spreadFactor, usdRates);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("amount", valueIntoMap.get("amount"));
-        result.put("base", valueIntoMap.get("base"));
-        result.put("date", valueIntoMap.get("date"));
-        result.put("USD_BuySpread_IDR", calculatedValue);
-        result.put("rates", ratesIntoMap.get("rates"));
+        if (rateTable == null) {
+            return new LatestRates(null, spreadFactor, null);
+        }
 
-        return new Map[]{result};
+        // USD_BuySpread_IDR keeps the spread derived from github.username, so a pricing.spreads.USD
+        // override changes the price table but not this legacy field
+        PriceTable prices = pricingEngine.price(rateTable, spreadFactor);
+        double usdBuy = PricingEngine.buyOf(rateTable, "USD", spreadFactor);
+        return new LatestRates(rateTable, spreadFactor, Double.isNaN(usdBuy) ? null : usdBuy, prices);
     }
 
-    private static Double calculateSpreadFactor(String githubUsername) {
+    private static double calculateSpreadFactor(String githubUsername) {
         int total = 0;
         for (char characterFromUsername : githubUsername.toLowerCase().toCharArray()) {
             total += characterFromUsername;
@@ -65,8 +53,4 @@ public class LatestRatesFetcher implements IDataFetcher {
 
         return (total % 1000) / 100000.0;
     }
-
-    private static Double calculateBuySpreadFromUSDtoIDR(Double spreadFactor, Double usdRates) {
-        return (1 / usdRates) * (1 + spreadFactor);
-    }
 }
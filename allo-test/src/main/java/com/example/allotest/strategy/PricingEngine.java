@@ -0,0 +1,68 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.model.CurrencyIndex;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Prices every currency of a refreshed rate table in one pass: the mid price of one unit in base
+// currency is amount / rate, buy marks it up by the currency's spread and sell marks it down.
+// Overrides are looked up once per code into a primitive array, so the pricing loop itself touches
+// nothing but double arrays.
+@Component
+public class PricingEngine {
+    private final Map<String, Double> overrides;
+
+    public PricingEngine(PricingProperties properties) {
+        this.overrides = new HashMap<>();
+        properties.getSpreads().forEach((code, spread) -> {
+            if (spread == null || !Double.isFinite(spread) || spread < 0 || spread >= 1) {
+                throw new IllegalArgumentException("pricing spread for " + code + " must be in [0, 1)");
+            }
+            overrides.put(code.trim().toUpperCase(Locale.ROOT), spread);
+        });
+    }
+
+    public PriceTable price(RateTable table, double defaultSpread) {
+        return price(table, spreadsFor(table.getIndex(), defaultSpread));
+    }
+
+    public double[] spreadsFor(CurrencyIndex index, double defaultSpread) {
+        double[] spreads = new double[index.size()];
+        for (int i = 0; i < spreads.length; i++) {
+            spreads[i] = overrides.getOrDefault(index.codeAt(i), defaultSpread);
+        }
+        return spreads;
+    }
+
+    public static PriceTable price(RateTable table, double[] spreads) {
+        int size = table.size();
+        double[] rates = table.copyRates();
+        double[] buy = new double[size];
+        double[] sell = new double[size];
+        double amount = table.getAmount();
+        for (int i = 0; i < size; i++) {
+            double mid = mid(amount, rates[i]);
+            buy[i] = mid * (1 + spreads[i]);
+            sell[i] = mid * (1 - spreads[i]);
+        }
+        return new PriceTable(table.getIndex(), spreads, buy, sell);
+    }
+
+    // the buy price of one currency at the given spread, whatever is configured for it; NaN when the
+    // table has no usable rate for it
+    public static double buyOf(RateTable table, String code, double spread) {
+        int i = table.indexOf(code);
+        return i < 0 ? Double.NaN : mid(table.getAmount(), table.rateAt(i)) * (1 + spread);
+    }
+
+    // a zero, negative or missing rate cannot be priced
+    private static double mid(double amount, double rate) {
+        return rate > 0 && rate < Double.POSITIVE_INFINITY ? amount / rate : Double.NaN;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.model.CurrencyIndex;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.RateTable;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Reads Frankfurter rate bodies token by token straight into the compact models, instead of first
+// building a tree of LinkedHashMaps and boxed Doubles and then copying out of it. Property names go
+// through the parser's symbol table, so each currency code is one canonical String however many days
+// it appears in. Anything not part of the model is skipped without being materialized.
+final class RatesJsonDecoder {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private RatesJsonDecoder() {
+    }
+
+    // {"amount": 1.0, "base": "IDR", "date": "2024-01-05", "rates": {"USD": 0.000063, ...}};
+    // null when the body carries no rates object, like RateTable.fromResponse
+    static RateTable decodeLatest(byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(ObjectReadContext.empty(), json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String date = null;
+            String base = null;
+            double amount = 1d;
+            String[] codes = null;
+            double[] rates = null;
+            int size = 0;
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("rates".equals(name) && value == JsonToken.START_OBJECT) {
+                    codes = new String[32];
+                    rates = new double[32];
+                    while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                        String code = parser.currentName();
+                        if (parser.nextToken().isNumeric() && CurrencyIndex.isValidCode(code)) {
+                            if (size == codes.length) {
+                                codes = Arrays.copyOf(codes, size * 2);
+                                rates = Arrays.copyOf(rates, size * 2);
+                            }
+                            codes[size] = code;
+                            rates[size] = parser.getDoubleValue();
+                            size++;
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("date".equals(name) && value == JsonToken.VALUE_STRING) {
+                    date = parser.getString();
+                } else if ("base".equals(name) && value == JsonToken.VALUE_STRING) {
+                    base = parser.getString();
+                } else if ("amount".equals(name) && value.isNumeric()) {
+                    amount = parser.getDoubleValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return codes == null ? null
+                    : new RateTable(date, base, amount, Arrays.copyOf(codes, size), Arrays.copyOf(rates, size));
+        }
+    }
+
+    // {"base": "IDR", "rates": {"2024-01-01": {"USD": 0.000063, ...}, ...}}
+    static HistoricalRates decodeHistorical(byte[] json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(ObjectReadContext.empty(), json)) {
+            return decodeHistorical(parser);
+        }
+    }
+
+    // the same, read from the response buffer as it is, so the body is never copied into an array first
+    static HistoricalRates decodeHistorical(InputStream json) {
+        try (JsonParser parser = JSON_FACTORY.createParser(ObjectReadContext.empty(), json)) {
+            return decodeHistorical(parser);
+        }
+    }
+
+    private static HistoricalRates decodeHistorical(JsonParser parser) {
+        HistoricalRates.Builder builder = new HistoricalRates.Builder(null);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return builder.base("IDR").build();
+        }
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("rates".equals(name) && value == JsonToken.START_OBJECT) {
+                readDays(parser, builder);
+            } else if ("base".equals(name) && value == JsonToken.VALUE_STRING) {
+                builder.base(parser.getString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    private static void readDays(JsonParser parser, HistoricalRates.Builder builder) {
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            String date = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int epochDay = epochDay(date);
+            while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                String code = parser.currentName();
+                if (parser.nextToken().isNumeric()) {
+                    builder.add(code, epochDay, parser.getDoubleValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    // ISO dates are read digit by digit and turned into a day count arithmetically (days from the
+    // civil calendar, counting years from March so the leap day comes last); anything else, an
+    // impossible month or day included, goes through LocalDate.parse and fails the same way the
+    // tree-based path did
+    static int epochDay(String date) {
+        if (date.length() == 10 && date.charAt(4) == '-' && date.charAt(7) == '-') {
+            int year = digits(date, 0, 4);
+            int month = digits(date, 5, 7);
+            int day = digits(date, 8, 10);
+            if ((year | month | day) >= 0 && month >= 1 && month <= 12 && day >= 1
+                    && day <= lengthOfMonth(year, month)) {
+                int marchYear = month <= 2 ? year - 1 : year;
+                int era = Math.floorDiv(marchYear, 400);
+                int yearOfEra = marchYear - era * 400;
+                int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+                int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+                return era * 146_097 + dayOfEra - 719_468;
+            }
+        }
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
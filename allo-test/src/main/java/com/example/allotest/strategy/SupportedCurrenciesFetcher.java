@@ -1,9 +1,11 @@
 package com.example.allotest.strategy;
 
+import com.example.allotest.constants.ResourceTypeConstants;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
-@Component("supported_currencies")
+@Component(ResourceTypeConstants.SUPPORTED_CURRENCIES)
 public class SupportedCurrenciesFetcher implements IDataFetcher{
     private final WebClient webClient;
 
@@ -12,11 +14,12 @@ public class SupportedCurrenciesFetcher implements IDataFetcher{
     }
 
     @Override
-    public Object[] fetchData() {
-        return new Object[]{webClient.get()
+    public Mono<Object[]> fetchDataAsync() {
+        return webClient.get()
                 .uri("/currencies")
                 .retrieve()
                 .bodyToMono(Object.class)
-                .block()};
+                .map(response -> new Object[]{response})
+                .defaultIfEmpty(new Object[]{null});
     }
 }
@@ -0,0 +1,179 @@
+package com.example.allotest;
+
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.support.FakeFrankfurter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Real HTTP on both sides: the application loads from FakeFrankfurter through the pooled WebClient
+// and is called over its own port, so codecs, pooling and serialization are all in the path.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class EndToEndTest {
+
+    private static final FakeFrankfurter upstream = startUpstream();
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataStore store;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("frankfurter.api.base-url", upstream::getBaseUrl);
+        registry.add("data.snapshot.enabled", () -> "false");
+        registry.add("data.refresh.enabled", () -> "false");
+        registry.add("historical.series.lookback-days", () -> "90");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    void getData_shouldServeRatesLoadedFromUpstreamOverHttp() throws Exception {
+        // Act
+        HttpResponse<byte[]> response = get("/api/finance/data/latest_idr_rates");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        JsonNode rates = jsonMapper.readTree(response.body()).get("data").get(0).get("rates");
+        assertEquals(30, rates.size());
+        assertTrue(rates.get("USD").asDouble() > 0);
+    }
+
+    @Test
+    void getRange_shouldFetchOlderRangeFromUpstreamOnce_andThenFromCache() throws Exception {
+        // Arrange
+        String path = "/api/finance/historical/USD?from=2020-01-06&to=2020-01-10";
+        long upstreamBefore = upstream.getRequests();
+
+        // Act
+        HttpResponse<byte[]> first = get(path);
+        HttpResponse<byte[]> second = get(path);
+
+        // Assert
+        assertEquals(200, first.statusCode());
+        assertEquals(200, second.statusCode());
+        JsonNode data = jsonMapper.readTree(first.body()).get("data");
+        assertEquals(5, data.get("dates").size());
+        assertEquals("2020-01-06", data.get("dates").get(0).asString());
+        assertEquals(1, upstream.getRequests() - upstreamBefore);
+    }
+
+    @Test
+    void getData_shouldAnswerEveryRequest_underConcurrentLoad() {
+        // Act
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String resourceType = i % 2 == 0 ? "latest_idr_rates" : "historical_idr_series";
+            responses.add(client.sendAsync(request("/api/finance/data/" + resourceType), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+
+        // Assert
+        responses.forEach(response -> assertEquals(200, response.join().statusCode()));
+    }
+
+    @Test
+    void streamLatestRates_shouldPushOnlyChangedRates_overHttp() throws Exception {
+        // Arrange
+        HttpResponse<Stream<String>> response = client.send(request("/api/finance/stream/latest_idr_rates"),
+                HttpResponse.BodyHandlers.ofLines());
+        Iterator<String> lines = response.body().iterator();
+        Map<String, String> snapshot = nextEvent(lines);
+        LatestRates current = (LatestRates) store.getFromStore("latest_idr_rates")[0];
+        RateTable table = current.getRateTable();
+        double[] rates = table.copyRates();
+        rates[table.indexOf("USD")] *= 2;
+        String[] codes = new String[table.size()];
+        Arrays.setAll(codes, table::codeAt);
+
+        // Act
+        store.publish("latest_idr_rates", new Object[]{new LatestRates(
+                new RateTable(table.getDate(), table.getBase(), table.getAmount(), codes, rates),
+                current.getSpreadFactor(), current.getUsdBuySpreadIdr())});
+        Map<String, String> update = nextEvent(lines);
+        response.body().close();
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertEquals("snapshot", snapshot.get("event"));
+        assertEquals(30, jsonMapper.readTree(snapshot.get("data")).get("rates").size());
+        assertEquals("update", update.get("event"));
+        JsonNode changed = jsonMapper.readTree(update.get("data"));
+        assertEquals(1, changed.get("rates").size());
+        assertEquals(rates[table.indexOf("USD")], changed.get("rates").get("USD").asDouble());
+        assertEquals(store.getSnapshot().getVersion(), changed.get("version").asLong());
+        assertEquals(update.get("id"), changed.get("version").asString());
+    }
+
+    // the fields of the next SSE event, skipping heartbeat comments
+    private static Map<String, String> nextEvent(Iterator<String> lines) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, String> fields = new HashMap<>();
+            while (lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty() && fields.containsKey("data")) {
+                    return fields;
+                }
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    fields.put(line.substring(0, colon), line.substring(colon + 1).strip());
+                }
+            }
+            return fields;
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    private HttpResponse<byte[]> get(String path) throws Exception {
+        return client.send(request(path), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    private static FakeFrankfurter startUpstream() {
+        try {
+            return new FakeFrankfurter(Duration.ofMillis(5), 0, 30).start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.allotest.config;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.tcp.SslProvider;
+
+import javax.net.ssl.SSLEngine;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiClientFactoryBeanTest {
+
+    private HttpServer server;
+
+    private ApiClientFactoryBean factoryBean;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/large", exchange -> {
+            StringBuilder json = new StringBuilder("{");
+            for (int i = 0; i < 40_000; i++) {
+                json.append(i == 0 ? "" : ",").append("\"key").append(i).append("\":").append(i);
+            }
+            byte[] body = json.append('}').toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/hang", exchange -> {
+            try {
+                Thread.sleep(3_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        factoryBean.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void getObject_shouldReadBodiesLargerThanCodecDefault() {
+        // Arrange - the body is well above WebClient's 256 KB default buffer limit
+        WebClient webClient = webClient(new FrankfurterProperties());
+
+        // Act
+        Map<?, ?> response = webClient.get().uri("/large").retrieve().bodyToMono(Map.class).block();
+
+        // Assert
+        assertNotNull(response);
+        assertEquals(40_000, response.size());
+    }
+
+    @Test
+    void getObject_shouldGiveUp_whenUpstreamDoesNotRespondInTime() {
+        // Arrange
+        FrankfurterProperties properties = new FrankfurterProperties();
+        properties.setResponseTimeout(Duration.ofMillis(300));
+        WebClient webClient = webClient(properties);
+
+        // Act
+        long startedAt = System.nanoTime();
+        assertThrows(Exception.class,
+                () -> webClient.get().uri("/hang").retrieve().toBodilessEntity().block());
+        long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        // Assert
+        assertTrue(tookMillis < 2_000, "Response timeout should cut off the hung call, took " + tookMillis + " ms");
+    }
+
+    @Test
+    void httpClient_shouldOfferHttp2ThroughAlpn_whenBaseUrlIsHttps() {
+        // Arrange
+        FrankfurterProperties properties = new FrankfurterProperties();
+        properties.setBaseUrl("https://api.frankfurter.dev/v1");
+        properties.getPool().setMetrics(false);
+        factoryBean = new ApiClientFactoryBean(new StaticListableBeanFactory().getBeanProvider(FrankfurterProperties.class));
+
+        // Act
+        HttpClient client = factoryBean.httpClient(properties);
+
+        // Assert
+        SslProvider sslProvider = client.configuration().sslProvider();
+        assertNotNull(sslProvider);
+        SSLEngine engine = sslProvider.getSslContext().newEngine(ByteBufAllocator.DEFAULT);
+        assertTrue(engine.getUseClientMode());
+        assertTrue(Arrays.asList(engine.getSSLParameters().getApplicationProtocols()).contains("h2"));
+    }
+
+    private WebClient webClient(FrankfurterProperties properties) {
+        properties.setBaseUrl("http://localhost:" + server.getAddress().getPort());
+        properties.getPool().setMetrics(false);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("frankfurterProperties", properties);
+        factoryBean = new ApiClientFactoryBean(beanFactory.getBeanProvider(FrankfurterProperties.class));
+        return factoryBean.getObject();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.allotest.config;
+
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ObservationConfigTest {
+
+    private final Map<String, IDataFetcher> strategies = Map.of("latest_idr_rates", mock(IDataFetcher.class));
+
+    @Test
+    void servletConvention_shouldTagRequestWithKnownResourceType() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/finance/data/latest_idr_rates");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("resourceType", "latest_idr_rates"));
+        ServerRequestObservationContext context = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+
+        // Act
+        KeyValue tag = tagOf(context);
+
+        // Assert
+        assertEquals("latest_idr_rates", tag.getValue());
+    }
+
+    @Test
+    void servletConvention_shouldCollapseUnknownAndMissingResourceTypes() {
+        // Arrange
+        MockHttpServletRequest unknown = new MockHttpServletRequest("GET", "/api/finance/data/anything");
+        unknown.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("resourceType", "anything"));
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/finance/convert");
+
+        // Act
+        KeyValue unknownTag = tagOf(new ServerRequestObservationContext(unknown, new MockHttpServletResponse()));
+        KeyValue otherTag = tagOf(new ServerRequestObservationContext(other, new MockHttpServletResponse()));
+
+        // Assert
+        assertEquals(ObservationConfig.NO_RESOURCE_TYPE, unknownTag.getValue());
+        assertEquals(ObservationConfig.NO_RESOURCE_TYPE, otherTag.getValue());
+    }
+
+    private KeyValue tagOf(ServerRequestObservationContext context) {
+        return new ObservationConfig().servletRequestObservationConvention(strategies)
+                .getLowCardinalityKeyValues(context).stream()
+                .filter(keyValue -> keyValue.getKey().equals(ObservationConfig.RESOURCE_TYPE_KEY))
+                .findFirst()
+                .orElseThrow();
+    }
+}
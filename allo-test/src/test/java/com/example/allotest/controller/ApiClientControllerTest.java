@@ -0,0 +1,540 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.exceptions.GlobalExceptionHandler;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.CrossRates;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.LatestPrices;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.strategy.IDataFetcher;
+import com.example.allotest.strategy.PricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ApiClientControllerTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private DataStore store;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        ResponseSerializer serializer = new ResponseSerializer(jsonMapper);
+        store = new DataStore(serializer);
+        RefreshProperties refreshProperties = new RefreshProperties();
+        refreshProperties.getIntervals().put("supported_currencies", Duration.ofHours(24));
+
+        Map<String, IDataFetcher> strategies = new LinkedHashMap<>();
+        strategies.put("supported_currencies", mock(IDataFetcher.class));
+        strategies.put("latest_idr_rates", mock(IDataFetcher.class));
+
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new ApiClientController(store, strategies, serializer, refreshProperties,
+                        new RateHistory(store, new DeltaProperties()), new CrossRates(store, serializer),
+                        new LatestPrices(store, serializer)))
+                .setControllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+    }
+
+    @Test
+    void getData_shouldWritePreSerializedEnvelope() throws Exception {
+        // Arrange
+        Map<String, String> currencies = new LinkedHashMap<>();
+        currencies.put("USD", "United States Dollar");
+        currencies.put("IDR", "Indonesian Rupiah");
+        store.publish("supported_currencies", new Object[]{currencies});
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/supported_currencies"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.message").value("Request Processed Successfully"))
+                .andExpect(jsonPath("$.resourceType").value("supported_currencies"))
+                .andExpect(jsonPath("$.timestamp").exists())
+                .andExpect(jsonPath("$.data[0].USD").value("United States Dollar"))
+                .andExpect(jsonPath("$.data[0].IDR").value("Indonesian Rupiah"));
+    }
+
+    @Test
+    void getData_shouldServeGzipBytes_whenClientAcceptsGzip() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        byte[] plain = store.getSnapshot().getEntry("supported_currencies").getResponse().getJson();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/finance/data/supported_currencies")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        // Assert
+        byte[] unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            unzipped = in.readAllBytes();
+        }
+        assertArrayEquals(plain, unzipped);
+    }
+
+    @Test
+    void getData_shouldServePlainJson_whenClientRefusesGzip() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        byte[] plain = store.getSnapshot().getEntry("supported_currencies").getResponse().getJson();
+
+        // Act & Assert
+        for (String refusal : new String[]{"gzip;q=0", "deflate, gzip; q=0.0", "gzip;q=0, *"}) {
+            MvcResult result = mockMvc.perform(get("/api/finance/data/supported_currencies")
+                            .header(HttpHeaders.ACCEPT_ENCODING, refusal))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andReturn();
+            assertArrayEquals(plain, result.getResponse().getContentAsByteArray(), refusal);
+        }
+        assertTrue(ApiClientController.acceptsGzip("deflate, *;q=0.5"));
+        assertTrue(ApiClientController.acceptsGzip("GZIP;Q=0.8"));
+    }
+
+    @Test
+    void getData_shouldAnswerNonNumericSince_withBadRequestEnvelope() throws Exception {
+        mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.resourceType").value("latest_idr_rates"));
+    }
+
+    @Test
+    void getData_shouldSetStrongEtagAndCacheControl() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String etag = store.getSnapshot().getEntry("supported_currencies").getResponse().getEtag();
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/finance/data/supported_currencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+
+        // Assert - max-age counts down from the 24h refresh interval
+        String cacheControl = result.getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+        assertNotNull(cacheControl);
+        long maxAge = Long.parseLong(cacheControl.replace("max-age=", ""));
+        assertTrue(maxAge > 86_000 && maxAge <= 86_400, "max-age should follow the refresh interval");
+        assertFalse(etag.startsWith("W/"), "ETag should be strong");
+    }
+
+    @Test
+    void getData_shouldReturnNotModified_whenIfNoneMatchHitsCurrentEtag() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String etag = store.getSnapshot().getEntry("supported_currencies").getResponse().getEtag();
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get("/api/finance/data/supported_currencies")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void getData_shouldReturnFullBody_whenSnapshotChangedSinceClientEtag() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String oldEtag = store.getSnapshot().getEntry("supported_currencies").getResponse().getEtag();
+        store.publish("supported_currencies", new Object[]{Map.of("EUR", "Euro")});
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/supported_currencies")
+                        .header(HttpHeaders.IF_NONE_MATCH, oldEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].EUR").value("Euro"));
+    }
+
+    @Test
+    void getData_shouldServePreviousDataFlaggedStale_whenLastRefreshFailed() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        store.markStale("supported_currencies");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/supported_currencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ApiClientController.DATA_STALE_HEADER, "true"))
+                .andExpect(header().exists(HttpHeaders.AGE))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0"))
+                .andExpect(jsonPath("$.data[0].USD").value("United States Dollar"));
+    }
+
+    @Test
+    void getData_shouldClearStaleFlag_onceRefreshSucceeds() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        store.markStale("supported_currencies");
+
+        // Act
+        store.publish("supported_currencies", new Object[]{Map.of("EUR", "Euro")});
+
+        // Assert
+        mockMvc.perform(get("/api/finance/data/supported_currencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ApiClientController.DATA_STALE_HEADER, "false"))
+                .andExpect(header().string(HttpHeaders.AGE, "0"));
+    }
+
+    @Test
+    void getData_shouldReturnNullData_whenResourceNotLoadedYet() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/finance/data/latest_idr_rates"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        JsonNode body = jsonMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("latest_idr_rates", body.get("resourceType").asString());
+        assertTrue(body.get("data").isNull());
+    }
+
+    @Test
+    void getBatch_shouldCombineResourcesFromOneSnapshot_usingTheirPublishedBytes() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        store.publish("latest_idr_rates", new Object[]{Map.of("USD", 0.00006)});
+        store.markStale("latest_idr_rates");
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/finance/data")
+                        .param("types", "latest_idr_rates, supported_currencies,latest_idr_rates"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ApiClientController.DATA_STALE_HEADER, "true"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        // Assert - each resource carries exactly the data of its single-resource response
+        JsonNode body = jsonMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("batch", body.get("resourceType").asString());
+        assertEquals(store.getSnapshot().getVersion(), body.get("data").get("version").asLong());
+        assertEquals("latest_idr_rates", body.get("data").get("stale").get(0).asString());
+        JsonNode resources = body.get("data").get("resources");
+        assertEquals(2, resources.size());
+        for (String resourceType : new String[]{"latest_idr_rates", "supported_currencies"}) {
+            JsonNode single = jsonMapper.readTree(store.getSnapshot().getEntry(resourceType).getResponse().getJson());
+            assertEquals(single.get("data"), resources.get(resourceType));
+        }
+    }
+
+    @Test
+    void getBatch_shouldChangeEtag_whenAnyRequestedResourceIsRepublished() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String before = mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies,latest_idr_rates"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        store.publish("latest_idr_rates", new Object[]{Map.of("USD", 0.00006)});
+
+        // Assert - the resource that was not loaded before is now part of the body
+        mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies,latest_idr_rates")
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.resources.latest_idr_rates[0].USD").value(0.00006));
+    }
+
+    @Test
+    void getBatch_shouldKeepEtag_whenOnlyAnotherResourceIsRepublished() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String before = mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act - the snapshot version moves on, the requested resource does not
+        store.publish("latest_idr_rates", new Object[]{Map.of("USD", 0.00006)});
+
+        // Assert
+        mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies")
+                        .header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies"))
+                .andExpect(jsonPath("$.data.version").value(1));
+    }
+
+    @Test
+    void getBatch_shouldAnswerTheSameBytes_forAsLongAsItsEtagHolds() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies,latest_idr_rates"))
+                .andReturn();
+        Thread.sleep(5);
+        MvcResult second = mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies,latest_idr_rates"))
+                .andReturn();
+
+        // Assert - stamped with the newest entry's time, not the time of the request
+        assertEquals(first.getResponse().getHeader(HttpHeaders.ETAG), second.getResponse().getHeader(HttpHeaders.ETAG));
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), second.getResponse().getContentAsByteArray());
+        JsonNode latestEnvelope = jsonMapper.readTree(store.getSnapshot().getEntry("latest_idr_rates").getResponse().getJson());
+        assertEquals(latestEnvelope.get("timestamp"),
+                jsonMapper.readTree(first.getResponse().getContentAsByteArray()).get("timestamp"));
+    }
+
+    @Test
+    void getBatch_shouldNegotiateEncodingAndCompression_likeSingleResources() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        MvcResult plain = mockMvc.perform(get("/api/finance/data").param("types", "latest_idr_rates"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+
+        // Act
+        MvcResult gzipped = mockMvc.perform(get("/api/finance/data").param("types", "latest_idr_rates")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/finance/data").param("types", "latest_idr_rates")
+                        .header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Assert - three representations of one body, each with its own validator
+        byte[] unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            unzipped = in.readAllBytes();
+        }
+        assertArrayEquals(plain.getResponse().getContentAsByteArray(), unzipped);
+        assertEquals(3, Set.of(plain.getResponse().getHeader(HttpHeaders.ETAG),
+                gzipped.getResponse().getHeader(HttpHeaders.ETAG), cbor.getResponse().getHeader(HttpHeaders.ETAG)).size());
+        JsonNode json = jsonMapper.readTree(unzipped);
+        JsonNode envelope = CBORMapper.builder().build().readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals(json.get("timestamp").asString(), envelope.get("timestamp").asString());
+        assertEquals("batch", envelope.get("resourceType").asString());
+        JsonNode usd = envelope.get("data").get("resources").get("latest_idr_rates").get(0).get("rates").get("USD");
+        assertTrue(usd.isDouble(), "Rates should be binary doubles, not text");
+        assertEquals(0.000061, usd.doubleValue());
+    }
+
+    @Test
+    void getBatch_shouldRejectUnknownOrMissingTypes() throws Exception {
+        mockMvc.perform(get("/api/finance/data").param("types", "supported_currencies,unknown_resource"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/finance/data").param("types", " , "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getData_shouldReturnOnlyChangedRates_sinceVersionClientHolds() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        String version = mockMvc.perform(get("/api/finance/data/latest_idr_rates"))
+                .andReturn().getResponse().getHeader(ApiClientController.DATA_VERSION_HEADER);
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        store.publish("latest_idr_rates", latest(0.000062, 0.000057));
+        long current = store.getSnapshot().getEntry("latest_idr_rates").getVersion();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", version))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ApiClientController.DATA_VERSION_HEADER, Long.toString(current)))
+                .andExpect(jsonPath("$.data[0].since").value(Long.parseLong(version)))
+                .andExpect(jsonPath("$.data[0].version").value(current))
+                .andExpect(jsonPath("$.data[0].rates.USD").value(0.000062))
+                .andExpect(jsonPath("$.data[0].rates.EUR").doesNotExist());
+        mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", Long.toString(current)))
+                .andExpect(jsonPath("$.data[0].rates").isEmpty());
+    }
+
+    @Test
+    void getData_shouldServeSameDeltaBytes_toRepeatedPollsWithSameSince() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        long since = store.getSnapshot().getVersion();
+        store.publish("latest_idr_rates", latest(0.000062, 0.000057));
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", Long.toString(since)))
+                .andReturn();
+        Thread.sleep(5);
+        MvcResult second = mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", Long.toString(since)))
+                .andReturn();
+
+        // Assert - timestamp included, so the delta was serialized only once
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), second.getResponse().getContentAsByteArray());
+        assertEquals(first.getResponse().getHeader(HttpHeaders.ETAG), second.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getData_shouldFallBackToFullPayload_whenSinceAgedOutOrUnknown() throws Exception {
+        // Arrange - more changes than the history keeps
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        long first = store.getSnapshot().getVersion();
+        for (int i = 1; i <= new DeltaProperties().getHistory(); i++) {
+            store.publish("latest_idr_rates", latest(0.000061 + i * 1e-7, 0.000057));
+        }
+        byte[] full = store.getSnapshot().getEntry("latest_idr_rates").getResponse().getJson();
+
+        // Act & Assert
+        for (long since : new long[]{first, store.getSnapshot().getVersion() + 1, -1}) {
+            MvcResult result = mockMvc.perform(get("/api/finance/data/latest_idr_rates").param("since", Long.toString(since)))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertArrayEquals(full, result.getResponse().getContentAsByteArray());
+        }
+    }
+
+    @Test
+    void getData_shouldServeCborEnvelopeWithBinaryRates_encodedOncePerSnapshot() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        String jsonEtag = store.getSnapshot().getEntry("latest_idr_rates").getResponse().getEtag();
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/finance/data/latest_idr_rates")
+                        .header(HttpHeaders.ACCEPT, "application/cbor")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult second = mockMvc.perform(get("/api/finance/data/latest_idr_rates")
+                        .header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andReturn();
+
+        // Assert - same bytes each time, stamped like the JSON envelope they encode
+        byte[] body = first.getResponse().getContentAsByteArray();
+        assertArrayEquals(body, second.getResponse().getContentAsByteArray());
+        assertNotEquals(jsonEtag, first.getResponse().getHeader(HttpHeaders.ETAG));
+        JsonNode envelope = CBORMapper.builder().build().readTree(body);
+        JsonNode jsonEnvelope = jsonMapper.readTree(store.getSnapshot().getEntry("latest_idr_rates").getResponse().getJson());
+        assertEquals(jsonEnvelope.get("timestamp").asString(), envelope.get("timestamp").asString());
+        assertEquals("latest_idr_rates", envelope.get("resourceType").asString());
+        JsonNode usd = envelope.get("data").get(0).get("rates").get("USD");
+        assertTrue(usd.isDouble(), "Rates should be binary doubles, not text");
+        assertEquals(0.000061, usd.doubleValue());
+    }
+
+    @Test
+    void getData_shouldNegotiateByQuality_andDefaultToJson() throws Exception {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+
+        // Act & Assert
+        MvcResult smile = mockMvc.perform(get("/api/finance/data/supported_currencies")
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-jackson-smile"))
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+        assertEquals("United States Dollar", SmileMapper.builder().build()
+                .readTree(smile.getResponse().getContentAsByteArray()).get("data").get(0).get("USD").asString());
+        mockMvc.perform(get("/api/finance/data/supported_currencies").header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(content().contentType("application/json"));
+        mockMvc.perform(get("/api/finance/data/supported_currencies")
+                        .header(HttpHeaders.ACCEPT, "application/cbor;q=0.1, application/*"))
+                .andExpect(content().contentType("application/json"));
+    }
+
+    @Test
+    void getLatestRates_shouldServeAnyBase_fromRowSerializedAtPublish() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+
+        // Act
+        MvcResult first = mockMvc.perform(get("/api/finance/data/latest_rates").param("base", "usd"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(ApiClientController.DATA_STALE_HEADER, "false"))
+                .andReturn();
+        MvcResult second = mockMvc.perform(get("/api/finance/data/latest_rates").param("base", "USD")).andReturn();
+
+        // Assert - the envelope timestamp would differ if the row were serialized per request
+        assertArrayEquals(first.getResponse().getContentAsByteArray(), second.getResponse().getContentAsByteArray());
+        JsonNode body = jsonMapper.readTree(first.getResponse().getContentAsByteArray());
+        assertEquals("latest_rates", body.get("resourceType").asString());
+        JsonNode data = body.get("data").get(0);
+        assertEquals("USD", data.get("base").asString());
+        assertEquals(1 / 0.000061, data.get("rates").get("IDR").asDouble(), 1e-6);
+        assertEquals(0.000057 / 0.000061, data.get("rates").get("EUR").asDouble(), 1e-12);
+        assertNull(data.get("rates").get("USD"));
+        mockMvc.perform(get("/api/finance/data/latest_rates"))
+                .andExpect(jsonPath("$.data[0].base").value("IDR"))
+                .andExpect(jsonPath("$.data[0].rates.USD").value(0.000061));
+    }
+
+    @Test
+    void getLatestRates_shouldRejectBaseOutsideRateTable() throws Exception {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/latest_rates").param("base", "GBP"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"));
+    }
+
+    @Test
+    void getLatestPrices_shouldServePricedTablePublishedWithTheRates() throws Exception {
+        // Arrange
+        mockMvc.perform(get("/api/finance/data/latest_idr_prices"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").doesNotExist());
+        RateTable table = new RateTable("2024-01-05", "IDR", 1, new String[]{"USD", "EUR"}, new double[]{0.000064, 0.000058});
+        store.publish("latest_idr_rates", new Object[]{new LatestRates(table, 0.00836, null,
+                PricingEngine.price(table, new double[]{0.00836, 0.002}))});
+
+        // Act & Assert
+        mockMvc.perform(get("/api/finance/data/latest_idr_prices"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(ApiClientController.DATA_VERSION_HEADER, "1"))
+                .andExpect(jsonPath("$.resourceType").value("latest_idr_prices"))
+                .andExpect(jsonPath("$.data[0].base").value("IDR"))
+                .andExpect(jsonPath("$.data[0].prices.USD.buy").value((1 / 0.000064) * 1.00836))
+                .andExpect(jsonPath("$.data[0].prices.EUR.sell").value((1 / 0.000058) * 0.998))
+                .andExpect(jsonPath("$.data[0].prices.EUR.spread").value(0.002));
+    }
+
+    @Test
+    void getData_shouldReturnNotFound_whenResourceTypeUnknown() throws Exception {
+        mockMvc.perform(get("/api/finance/data/unknown_resource"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("404"));
+    }
+
+    private static Object[] latest(double usd, double eur) {
+        return new Object[]{new LatestRates(
+                new RateTable("2024-01-05", "IDR", 1, new String[]{"USD", "EUR"}, new double[]{usd, eur}),
+                0.00836, null)};
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.exceptions.GlobalExceptionHandler;
+import com.example.allotest.service.CurrencyConversionServiceImpl;
+import com.example.allotest.store.CrossRates;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.LatestPrices;
+import com.example.allotest.store.RateHistory;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.strategy.IDataFetcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+// the same controller bound to WebFlux, as it runs under the "reactive" profile on Netty
+class ApiClientControllerWebFluxTest {
+
+    private DataStore store;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        ResponseSerializer serializer = new ResponseSerializer(JsonMapper.builder().build());
+        store = new DataStore(serializer);
+
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        webTestClient = WebTestClient
+                .bindToController(new ApiClientController(store,
+                        Map.of("supported_currencies", mock(IDataFetcher.class)), serializer, new RefreshProperties(),
+                        new RateHistory(store, new DeltaProperties()), new CrossRates(store, serializer),
+                        new LatestPrices(store, serializer)))
+                .controllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+    }
+
+    @Test
+    void getData_shouldServePreSerializedEnvelope() {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String etag = store.getSnapshot().getEntry("supported_currencies").getResponse().getEtag();
+
+        // Act & Assert
+        webTestClient.get().uri("/api/finance/data/supported_currencies")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody()
+                .jsonPath("$.resourceType").isEqualTo("supported_currencies")
+                .jsonPath("$.data[0].USD").isEqualTo("United States Dollar");
+    }
+
+    @Test
+    void getData_shouldReturnNotModified_whenEtagMatches() {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        String etag = store.getSnapshot().getEntry("supported_currencies").getResponse().getEtag();
+
+        // Act & Assert
+        webTestClient.get().uri("/api/finance/data/supported_currencies")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getData_shouldReturnNotFound_whenResourceTypeUnknown() {
+        // Act & Assert
+        webTestClient.get().uri("/api/finance/data/unknown")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("404");
+    }
+
+    @Test
+    void getData_shouldAnswerNonNumericSince_withBadRequestEnvelope() {
+        // Arrange
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+
+        // Act & Assert
+        webTestClient.get().uri("/api/finance/data/supported_currencies?since=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("400")
+                .jsonPath("$.resourceType").isEqualTo("supported_currencies")
+                .jsonPath("$.data").isEqualTo("invalid value for since: abc");
+    }
+
+    @Test
+    void convert_shouldAnswerUnconvertibleParameter_withBadRequestEnvelope() {
+        // Arrange - WebFlux reports the failed conversion as a ServerWebInputException
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        WebTestClient convertClient = WebTestClient
+                .bindToController(new CurrencyConversionController(new CurrencyConversionServiceImpl(store)))
+                .controllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+
+        // Act & Assert
+        convertClient.get().uri("/api/finance/convert?from=USD&to=IDR&amount=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("400")
+                .jsonPath("$.resourceType").isEqualTo("convert")
+                .jsonPath("$.data").isEqualTo("invalid value for amount: abc");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.exceptions.GlobalExceptionHandler;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.service.CurrencyConversionServiceImpl;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class CurrencyConversionControllerTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{new LatestRates(new RateTable("2024-01-15", "IDR", 1d,
+                new String[]{"USD", "EUR"}, new double[]{0.000063, 0.000058}), 0.00836, null)});
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CurrencyConversionController(new CurrencyConversionServiceImpl(store)))
+                .setControllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+    }
+
+    @Test
+    void convert_shouldReturnEnvelope() throws Exception {
+        mockMvc.perform(get("/api/finance/convert").param("from", "USD").param("to", "IDR").param("amount", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resourceType").value("convert"))
+                .andExpect(jsonPath("$.data.result").value(2 / 0.000063));
+    }
+
+    @Test
+    void convert_shouldAnswerNonNumericAmount_withBadRequestEnvelope() throws Exception {
+        mockMvc.perform(get("/api/finance/convert").param("from", "USD").param("to", "IDR").param("amount", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andExpect(jsonPath("$.resourceType").value("convert"))
+                .andExpect(jsonPath("$.data").value("invalid value for amount: abc"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.allotest.controller;
+
+import com.example.allotest.exceptions.CircuitOpenException;
+import com.example.allotest.exceptions.GlobalExceptionHandler;
+import com.example.allotest.service.IHistoricalRatesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class HistoricalRatesControllerTest {
+
+    private IHistoricalRatesService historicalRatesService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        historicalRatesService = mock(IHistoricalRatesService.class);
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.setUseCodeAsDefaultMessage(true);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new HistoricalRatesController(historicalRatesService))
+                .setControllerAdvice(new GlobalExceptionHandler(messageSource))
+                .build();
+    }
+
+    @Test
+    void getRange_shouldAnswerServiceUnavailableWithRetryAfter_whileCircuitIsOpen() throws Exception {
+        // Arrange
+        when(historicalRatesService.getRange("USD", "2020-01-01", null)).thenReturn(Mono.error(
+                new CircuitOpenException("circuit open for historical_idr_usd", "historical_idr_usd",
+                        Duration.ofMillis(12_300))));
+
+        // Act
+        MvcResult pending = mockMvc.perform(get("/api/finance/historical/USD").param("from", "2020-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "13"))
+                .andExpect(jsonPath("$.code").value("503"))
+                .andExpect(jsonPath("$.resourceType").value("historical_idr_usd"))
+                .andExpect(jsonPath("$.data").value("circuit open for historical_idr_usd"));
+    }
+}
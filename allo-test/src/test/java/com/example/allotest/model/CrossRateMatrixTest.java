@@ -0,0 +1,45 @@
+package com.example.allotest.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrossRateMatrixTest {
+
+    @Test
+    void from_shouldDeriveEveryPair_perOneUnitOfBase() {
+        // Arrange - quoted per 10 IDR
+        RateTable table = new RateTable("2024-01-15", "IDR", 10, new String[]{"USD", "EUR", "JPY"},
+                new double[]{0.00064, 0.00058, 0.092});
+
+        // Act
+        CrossRateMatrix matrix = CrossRateMatrix.from(table);
+
+        // Assert
+        assertEquals(4, matrix.size());
+        assertEquals(0.000064, matrix.rate("IDR", "USD"), 1e-15);
+        assertEquals(1 / 0.000064, matrix.rate("USD", "IDR"), 1e-6);
+        assertEquals(0.00058 / 0.00064, matrix.rate("USD", "EUR"), 1e-12);
+        assertEquals(0.092 / 0.00058, matrix.rate("EUR", "JPY"), 1e-9);
+        assertEquals(1d, matrix.rate("JPY", "JPY"));
+        assertTrue(Double.isNaN(matrix.rate("USD", "GBP")));
+    }
+
+    @Test
+    void row_shouldListOtherCurrencies_andSkipUnusableRates() {
+        // Arrange
+        RateTable table = new RateTable("2024-01-15", "IDR", 1, new String[]{"USD", "XAU", "EUR"},
+                new double[]{0.000064, 0, 0.000058});
+
+        // Act
+        CrossRateMatrix matrix = CrossRateMatrix.from(table);
+        Map<String, Double> usdRow = matrix.row(matrix.getIndex().indexOf("USD"));
+
+        // Assert
+        assertFalse(matrix.contains("XAU"));
+        assertEquals(Map.of("IDR", 1 / 0.000064, "EUR", 0.000058 / 0.000064).keySet(), usdRow.keySet());
+        assertEquals(1 / 0.000064, usdRow.get("IDR"), 1e-6);
+    }
+}
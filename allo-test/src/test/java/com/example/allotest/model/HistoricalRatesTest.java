@@ -0,0 +1,100 @@
+package com.example.allotest.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalRatesTest {
+
+    @Test
+    void fromResponse_shouldSplitNestedMapIntoColumnsPerCurrency() {
+        // Arrange
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("base", "IDR");
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        rates.put("2024-01-02", Map.of("USD", 0.000064, "EUR", 0.000058));
+        rates.put("2024-01-03", Map.of("USD", 0.000062));
+        rates.put("2024-01-05", Map.of("USD", 0.000065, "EUR", 0.000059));
+        response.put("rates", rates);
+
+        // Act
+        HistoricalRates historicalRates = HistoricalRates.fromResponse(response);
+
+        // Assert
+        assertEquals("IDR", historicalRates.getBase());
+        assertEquals(2, historicalRates.seriesCount());
+        assertEquals(3, historicalRates.series("USD").size());
+        assertEquals(2, historicalRates.series("EUR").size());
+        assertEquals("2024-01-02", historicalRates.getStartDate());
+        assertEquals("2024-01-05", historicalRates.getEndDate());
+        assertEquals(5, historicalRates.getObservations());
+        assertNull(historicalRates.series("JPY"));
+    }
+
+    @Test
+    void series_shouldAnswerRangeAndAsOfQueriesByBinarySearch() {
+        // Arrange - 2024-01-01 .. 2024-01-05 without the 3rd
+        int day1 = day("2024-01-01");
+        HistoricalSeries series = new HistoricalSeries("USD",
+                new int[]{day1, day1 + 1, day1 + 3, day1 + 4},
+                new double[]{1, 2, 4, 5});
+
+        // Act & Assert
+        assertEquals(0, series.lowerBound(day1 - 10));
+        assertEquals(2, series.lowerBound(day1 + 2));
+        assertEquals(4, series.lowerBound(day1 + 10));
+        assertEquals(-1, series.floorIndex(day1 - 1));
+        assertEquals(1, series.floorIndex(day1 + 2), "as-of a missing day falls back to the previous one");
+        assertEquals(3, series.floorIndex(day1 + 100));
+    }
+
+    @Test
+    void builder_shouldSortOutOfOrderDays() {
+        // Arrange
+        int day1 = day("2024-01-01");
+
+        // Act
+        HistoricalRates rates = new HistoricalRates.Builder("IDR")
+                .add("USD", day1 + 2, 3)
+                .add("USD", day1, 1)
+                .add("USD", day1 + 1, 2)
+                .build();
+
+        // Assert
+        HistoricalSeries usd = rates.series("USD");
+        assertEquals(day1, usd.dayAt(0));
+        assertEquals(3, usd.rateAt(2));
+    }
+
+    @Test
+    void columns_shouldHoldYearsOfDailyDataForAllCurrenciesInFewMegabytes() {
+        // Arrange - ten years of every calendar day for 30 currencies
+        String[] codes = new String[30];
+        for (int c = 0; c < codes.length; c++) {
+            codes[c] = "C" + (char) ('A' + c / 26) + (char) ('A' + c % 26);
+        }
+        HistoricalRates.Builder builder = new HistoricalRates.Builder("IDR");
+        int start = day("2015-01-01");
+        for (int d = 0; d < 3_650; d++) {
+            for (String code : codes) {
+                builder.add(code, start + d, 0.0001 * d);
+            }
+        }
+
+        // Act
+        HistoricalRates rates = builder.build();
+
+        // Assert
+        assertEquals(30, rates.seriesCount());
+        assertTrue(rates.estimatedBytes() < 2 * 1024 * 1024,
+                "10 years x 30 currencies should fit in under 2 MB of columns");
+    }
+
+    private static int day(String date) {
+        return (int) LocalDate.parse(date).toEpochDay();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.allotest.model;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableTest {
+
+    @Test
+    void fromResponse_shouldKeepUpstreamOrder_andResolveCodesThroughIndex() {
+        // Arrange
+        Map<String, Object> response = upstreamResponse();
+
+        // Act
+        RateTable table = RateTable.fromResponse(response);
+
+        // Assert
+        assertNotNull(table);
+        assertEquals("2024-01-15", table.getDate());
+        assertEquals("IDR", table.getBase());
+        assertEquals(1d, table.getAmount());
+        assertEquals(3, table.size());
+        assertEquals("USD", table.codeAt(0));
+        assertEquals("JPY", table.codeAt(2));
+        assertEquals(1, table.indexOf("EUR"));
+        assertEquals(0.000058, table.rateOf("EUR"));
+        assertEquals(1d, table.rateOf("IDR"));
+        assertTrue(Double.isNaN(table.rateOf("XXX")));
+    }
+
+    @Test
+    void fromResponse_shouldReturnNull_whenRatesMissing() {
+        // Arrange
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("base", "IDR");
+
+        // Act & Assert
+        assertNull(RateTable.fromResponse(response));
+    }
+
+    @Test
+    void currencyIndex_shouldRejectMalformedCodes() {
+        // Arrange
+        CurrencyIndex index = new CurrencyIndex(new String[]{"USD", "EUR"});
+
+        // Act & Assert
+        assertEquals(0, index.indexOf("USD"));
+        assertEquals(-1, index.indexOf("usd"));
+        assertEquals(-1, index.indexOf("US"));
+        assertEquals(-1, index.indexOf(null));
+        assertEquals(-1, index.indexOf("GBP"));
+        assertThrows(IllegalArgumentException.class, () -> new CurrencyIndex(new String[]{"U$D"}));
+    }
+
+    @Test
+    void latestRates_shouldSerializeToPreviousPayloadShape() {
+        // Arrange
+        RateTable table = RateTable.fromResponse(upstreamResponse());
+        LatestRates latestRates = new LatestRates(table, 0.00836, 15999.0);
+
+        // Act
+        JsonNode json = JsonMapper.builder().build().valueToTree(latestRates);
+
+        // Assert
+        assertEquals(1d, json.get("amount").asDouble());
+        assertEquals("IDR", json.get("base").asString());
+        assertEquals("2024-01-15", json.get("date").asString());
+        assertEquals(15999.0, json.get("USD_BuySpread_IDR").asDouble());
+        assertEquals(0.000063, json.get("rates").get("USD").asDouble());
+        assertEquals(5, json.size(), "Only the original payload fields should be serialized");
+    }
+
+    @Test
+    void changesFrom_shouldListMovedAddedAndDroppedRates_only() {
+        // Arrange
+        RateTable previous = new RateTable("2024-01-15", "IDR", 1, new String[]{"USD", "EUR", "JPY"},
+                new double[]{0.000063, 0.000058, 0.0092});
+        RateTable current = new RateTable("2024-01-16", "IDR", 1, new String[]{"USD", "EUR", "GBP"},
+                new double[]{0.000064, 0.000058, 0.000050});
+
+        // Act
+        Map<String, Double> changes = current.changesFrom(previous);
+
+        // Assert
+        Map<String, Double> expected = new LinkedHashMap<>();
+        expected.put("USD", 0.000064);
+        expected.put("GBP", 0.000050);
+        expected.put("JPY", null);
+        assertEquals(expected, changes);
+        assertEquals(current.toMap(), current.changesFrom(null));
+    }
+
+    private static Map<String, Object> upstreamResponse() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("amount", 1.0);
+        response.put("base", "IDR");
+        response.put("date", "2024-01-15");
+        Map<String, Double> rates = new LinkedHashMap<>();
+        rates.put("USD", 0.000063);
+        rates.put("EUR", 0.000058);
+        rates.put("JPY", 0.0092);
+        response.put("rates", rates);
+        return response;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.allotest.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesAnalyticsTest {
+
+    // Monday 2024-01-01 onward, weekdays only
+    private static HistoricalSeries weekdays(int count, int skip) {
+        int[] days = new int[count];
+        double[] rates = new double[count];
+        int day = (int) LocalDate.parse("2024-01-01").toEpochDay();
+        for (int i = 0; i < skip + count; day++) {
+            if (Math.floorMod(day + 3, 7) >= 5) {
+                continue;
+            }
+            if (i >= skip) {
+                days[i - skip] = day;
+                rates[i - skip] = 0.00006 + 0.000001 * Math.sin(i);
+            }
+            i++;
+        }
+        return new HistoricalSeries("USD", days, rates);
+    }
+
+    @Test
+    void movingAverageAndVolatility_shouldMatchRecomputingEachWindow() {
+        // Arrange
+        HistoricalSeries series = weekdays(300, 0);
+
+        // Act
+        SeriesAnalytics analytics = SeriesAnalytics.of(series);
+        SeriesAnalytics.Points average = analytics.movingAverage(20, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        SeriesAnalytics.Points volatility = analytics.volatility(20, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(281, average.size());
+        assertEquals(series.dayAt(19), average.dayAt(0));
+        assertEquals(280, volatility.size());
+        assertEquals(series.dayAt(20), volatility.dayAt(0));
+        for (int i = 0; i < average.size(); i++) {
+            double sum = 0;
+            for (int j = i; j < i + 20; j++) {
+                sum += series.rateAt(j);
+            }
+            assertEquals(sum / 20, average.getValues()[i], 1e-15);
+        }
+        for (int i = 0; i < volatility.size(); i++) {
+            double[] returns = new double[20];
+            double mean = 0;
+            for (int j = 0; j < 20; j++) {
+                returns[j] = Math.log(series.rateAt(i + j + 1) / series.rateAt(i + j));
+                mean += returns[j] / 20;
+            }
+            double squares = 0;
+            for (double r : returns) {
+                squares += (r - mean) * (r - mean);
+            }
+            assertEquals(Math.sqrt(squares / 19), volatility.getValues()[i], 1e-12);
+        }
+    }
+
+    @Test
+    void bars_shouldGroupDaysByCalendarWeekAndMonth() {
+        // Arrange - 2024-01-01 .. 2024-02-09, six full weeks
+        HistoricalSeries series = weekdays(30, 0);
+
+        // Act
+        SeriesAnalytics analytics = SeriesAnalytics.of(series);
+        SeriesAnalytics.Candles weeks = analytics.bars(SeriesAnalytics.Period.WEEK, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        SeriesAnalytics.Candles months = analytics.bars(SeriesAnalytics.Period.MONTH, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(6, weeks.size());
+        assertEquals(LocalDate.parse("2024-01-08").toEpochDay(), weeks.periodStartAt(1));
+        assertEquals(series.rateAt(5), weeks.getOpen()[1]);
+        assertEquals(series.rateAt(9), weeks.getClose()[1]);
+        double high = Double.NEGATIVE_INFINITY;
+        double low = Double.POSITIVE_INFINITY;
+        for (int i = 5; i < 10; i++) {
+            high = Math.max(high, series.rateAt(i));
+            low = Math.min(low, series.rateAt(i));
+        }
+        assertEquals(high, weeks.getHigh()[1]);
+        assertEquals(low, weeks.getLow()[1]);
+        assertEquals(2, months.size());
+        assertEquals(LocalDate.parse("2024-02-01").toEpochDay(), months.periodStartAt(1));
+        assertEquals(series.rateAt(23), months.getOpen()[1]);
+    }
+
+    @Test
+    void extendTo_shouldMatchFullBuild_whenWindowSlidesAndDaysArrive() {
+        // Arrange
+        SeriesAnalytics analytics = SeriesAnalytics.of(weekdays(200, 0));
+        HistoricalSeries refreshed = weekdays(200, 3);
+
+        // Act - three days left the window, three arrived, and the first bar lost its Monday to Wednesday
+        boolean extended = analytics.extendTo(refreshed);
+
+        // Assert
+        assertTrue(extended);
+        SeriesAnalytics rebuilt = SeriesAnalytics.of(refreshed);
+        assertEquals(rebuilt.size(), analytics.size());
+        assertArrayEquals(rebuilt.movingAverage(10, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(),
+                analytics.movingAverage(10, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(), 1e-15);
+        assertArrayEquals(rebuilt.volatility(10, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(),
+                analytics.volatility(10, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(), 1e-12);
+        SeriesAnalytics.Candles expected = rebuilt.bars(SeriesAnalytics.Period.WEEK, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        SeriesAnalytics.Candles actual = analytics.bars(SeriesAnalytics.Period.WEEK, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(expected.size(), actual.size());
+        assertArrayEquals(expected.getOpen(), actual.getOpen());
+        assertArrayEquals(expected.getHigh(), actual.getHigh());
+        assertArrayEquals(expected.getLow(), actual.getLow());
+        assertArrayEquals(expected.getClose(), actual.getClose());
+    }
+
+    @Test
+    void extendTo_shouldStayExact_whileTheWindowSlidesDayByDay() {
+        // Arrange
+        SeriesAnalytics analytics = SeriesAnalytics.of(weekdays(100, 0));
+
+        // Act - long enough for the dropped days to be compacted away several times
+        for (int skip = 1; skip <= 300; skip++) {
+            assertTrue(analytics.extendTo(weekdays(100, skip)));
+        }
+
+        // Assert
+        SeriesAnalytics rebuilt = SeriesAnalytics.of(weekdays(100, 300));
+        assertEquals(100, analytics.size());
+        assertEquals(rebuilt.firstDay(), analytics.firstDay());
+        assertArrayEquals(rebuilt.movingAverage(20, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(),
+                analytics.movingAverage(20, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(), 1e-15);
+        assertArrayEquals(rebuilt.volatility(20, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(),
+                analytics.volatility(20, Integer.MIN_VALUE, Integer.MAX_VALUE).getValues(), 1e-12);
+        assertArrayEquals(rebuilt.bars(SeriesAnalytics.Period.MONTH, Integer.MIN_VALUE, Integer.MAX_VALUE).getLow(),
+                analytics.bars(SeriesAnalytics.Period.MONTH, Integer.MIN_VALUE, Integer.MAX_VALUE).getLow());
+    }
+
+    @Test
+    void extendTo_shouldRefuse_whenLastKnownDayChanged() {
+        // Arrange
+        SeriesAnalytics analytics = SeriesAnalytics.of(weekdays(10, 0));
+        HistoricalSeries other = weekdays(12, 0);
+        double[] rates = other.copyRates(0, other.size());
+        rates[9] *= 1.01;
+
+        // Act & Assert
+        assertFalse(analytics.extendTo(new HistoricalSeries("USD", other.copyDays(0, other.size()), rates)));
+        assertTrue(analytics.extendTo(other));
+        assertEquals(12, analytics.size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.QueryCacheProperties;
+import com.example.allotest.exceptions.CircuitOpenException;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiClientServiceImplTest {
+
+    @Test
+    void fetchDataAsync_shouldShareOneUpstreamCall_betweenConcurrentCallers() {
+        // Arrange
+        Sinks.One<Object[]> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        IDataFetcher fetcher = () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        };
+        ApiClientServiceImpl service = newService("latest_idr_rates", fetcher);
+
+        // Act
+        List<CompletableFuture<Object[]>> waiters = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            waiters.add(service.fetchDataAsync("latest_idr_rates").toFuture());
+        }
+        upstream.tryEmitValue(new Object[]{"rates"});
+
+        // Assert
+        assertEquals(1, calls.get());
+        waiters.forEach(waiter -> assertEquals("rates", waiter.join()[0]));
+        FetchStats stats = service.getStats();
+        assertEquals(10, stats.getRequests());
+        assertEquals(1, stats.getUpstreamCalls());
+        assertEquals(9, stats.getCoalesced());
+        assertEquals(0, stats.getInFlight());
+    }
+
+    @Test
+    void fetchDataAsync_shouldKeepSeparateFlights_forDifferentParams() {
+        // Arrange
+        Sinks.One<Object[]> upstream = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+        IDataFetcher fetcher = new IDataFetcher() {
+            @Override
+            public Mono<Object[]> fetchDataAsync() {
+                return fetchDataAsync(Map.of());
+            }
+
+            @Override
+            public Mono<Object[]> fetchDataAsync(Map<String, String> params) {
+                calls.incrementAndGet();
+                return upstream.asMono();
+            }
+        };
+        ApiClientServiceImpl service = newService("historical_idr_usd", fetcher);
+
+        // Act
+        CompletableFuture<Object[]> first = service.fetchDataAsync("historical_idr_usd",
+                Map.of("start", "2020-01-01", "to", "USD")).toFuture();
+        CompletableFuture<Object[]> sameParamsOtherOrder = service.fetchDataAsync("historical_idr_usd",
+                Map.of("to", "USD", "start", "2020-01-01")).toFuture();
+        CompletableFuture<Object[]> otherRange = service.fetchDataAsync("historical_idr_usd",
+                Map.of("start", "2021-01-01", "to", "USD")).toFuture();
+        upstream.tryEmitValue(new Object[]{"history"});
+
+        // Assert
+        assertEquals(2, calls.get());
+        assertEquals("history", first.join()[0]);
+        assertEquals("history", sameParamsOtherOrder.join()[0]);
+        assertEquals("history", otherRange.join()[0]);
+    }
+
+    @Test
+    void fetchData_shouldGoUpstreamAgain_afterPreviousCallFinished() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        IDataFetcher fetcher = () -> Mono.fromSupplier(() -> new Object[]{calls.incrementAndGet()});
+        ApiClientServiceImpl service = newService("latest_idr_rates", fetcher);
+
+        // Act
+        Object[] first = service.fetchData("latest_idr_rates");
+        Object[] second = service.fetchData("latest_idr_rates");
+
+        // Assert
+        assertEquals(1, first[0]);
+        assertEquals(2, second[0]);
+        assertEquals(0, service.getStats().getCoalesced());
+    }
+
+    @Test
+    void fetchData_shouldAnswerRepeatedParameterizedQueryFromCache() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        IDataFetcher fetcher = new IDataFetcher() {
+            @Override
+            public Mono<Object[]> fetchDataAsync() {
+                return fetchDataAsync(Map.of());
+            }
+
+            @Override
+            public Mono<Object[]> fetchDataAsync(Map<String, String> params) {
+                return Mono.fromSupplier(() -> new Object[]{calls.incrementAndGet()});
+            }
+        };
+        ApiClientServiceImpl service = newService("historical_idr_usd", fetcher);
+
+        // Act
+        Object[] first = service.fetchData("historical_idr_usd", Map.of("start", "2020-01-01", "to", "USD"));
+        Object[] second = service.fetchData("historical_idr_usd", Map.of("to", " USD ", "start", "2020-01-01", "end", ""));
+        Object[] refresh = service.fetchData("historical_idr_usd");
+
+        // Assert - the normalized query hits the cache, the plain refresh still goes upstream
+        assertEquals(1, first[0]);
+        assertEquals(1, second[0]);
+        assertEquals(2, refresh[0]);
+        assertEquals(1, service.getStats().getCacheHits());
+        assertEquals(2, service.getStats().getUpstreamCalls());
+    }
+
+    @Test
+    void fetchData_shouldWrapUpstreamFailure() {
+        // Arrange
+        IDataFetcher failing = () -> Mono.error(new IllegalStateException("upstream down"));
+        ApiClientServiceImpl service = newService("latest_idr_rates", failing);
+
+        // Act & Assert
+        CustomGlobalException exception = assertThrows(CustomGlobalException.class,
+                () -> service.fetchData("latest_idr_rates"));
+        assertTrue(exception.getMessage().contains("upstream down"));
+        assertThrows(CustomGlobalException.class, () -> service.fetchData("unknown"));
+    }
+
+    @Test
+    void fetchData_shouldFailFastWithoutUpstreamCall_whileCircuitIsOpen() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        IDataFetcher failing = () -> Mono.defer(() -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("upstream down"));
+        });
+        ApiClientServiceImpl service = newService("latest_idr_rates", failing);
+        for (int i = 0; i < new CircuitBreakerProperties().getFailureThreshold(); i++) {
+            assertThrows(CustomGlobalException.class, () -> service.fetchData("latest_idr_rates"));
+        }
+
+        // Act
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> service.fetchData("latest_idr_rates"));
+
+        // Assert
+        assertEquals(3, calls.get());
+        assertTrue(exception.getMessage().contains("circuit open"));
+        assertTrue(exception.getRetryAfter().compareTo(new CircuitBreakerProperties().getOpenDuration()) <= 0);
+        assertFalse(exception.getRetryAfter().isNegative());
+    }
+
+    private static ApiClientServiceImpl newService(String resourceType, IDataFetcher fetcher) {
+        return new ApiClientServiceImpl(Map.of(resourceType, fetcher), new QueryCache(new QueryCacheProperties()),
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()), new FetchMetrics(new SimpleMeterRegistry()));
+    }
+}
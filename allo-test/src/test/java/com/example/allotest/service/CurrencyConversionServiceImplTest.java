@@ -0,0 +1,122 @@
+package com.example.allotest.service;
+
+import com.example.allotest.dtos.ConversionResponseDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.strategy.PricingEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyConversionServiceImplTest {
+
+    private static final double SPREAD_FACTOR = 0.00836;
+
+    private DataStore store;
+
+    private CurrencyConversionServiceImpl conversionService;
+
+    @BeforeEach
+    void setUp() {
+        store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        conversionService = new CurrencyConversionServiceImpl(store);
+    }
+
+    @Test
+    void convert_shouldComputeCrossRateFromIdrTable() {
+        // Arrange
+        publishRates();
+
+        // Act
+        ConversionResponseDto result = conversionService.convert("USD", "EUR", 100, false);
+
+        // Assert
+        assertEquals("USD", result.getFrom());
+        assertEquals("EUR", result.getTo());
+        assertEquals(0.000058 / 0.000063, result.getRate(), 1e-12);
+        assertEquals(100 * 0.000058 / 0.000063, result.getResult(), 1e-9);
+        assertEquals("2024-01-15", result.getDate());
+        assertFalse(result.isSpreadApplied());
+    }
+
+    @Test
+    void convert_shouldTreatBaseCurrencyAsOne() {
+        // Arrange
+        publishRates();
+
+        // Act
+        ConversionResponseDto result = conversionService.convert("idr", "usd", 1_000_000, false);
+
+        // Assert
+        assertEquals("IDR", result.getFrom());
+        assertEquals(63.0, result.getResult(), 1e-9);
+    }
+
+    @Test
+    void convert_shouldApplySameBuySpreadAsLatestRates() {
+        // Arrange
+        publishRates();
+
+        // Act
+        ConversionResponseDto result = conversionService.convert("USD", "IDR", 1, true);
+
+        // Assert - matches USD_BuySpread_IDR
+        assertEquals((1 / 0.000063) * (1 + SPREAD_FACTOR), result.getRate(), 1e-9);
+        assertTrue(result.isSpreadApplied());
+    }
+
+    @Test
+    void convert_shouldApplyTargetCurrencySpread_fromPricedTable() {
+        // Arrange
+        RateTable table = new RateTable("2024-01-15", "IDR", 1d,
+                new String[]{"USD", "EUR"}, new double[]{0.000063, 0.000058});
+        PriceTable prices = PricingEngine.price(table, new double[]{0.01, 0.002});
+        store.publish("latest_idr_rates", new Object[]{new LatestRates(table, SPREAD_FACTOR, null, prices)});
+
+        // Act
+        ConversionResponseDto toEuro = conversionService.convert("USD", "EUR", 1, true);
+        ConversionResponseDto toRupiah = conversionService.convert("USD", "IDR", 1, true);
+
+        // Assert - IDR is not priced, so it keeps the default factor
+        assertEquals((0.000058 / 0.000063) * 1.002, toEuro.getRate(), 1e-12);
+        assertEquals((1 / 0.000063) * (1 + SPREAD_FACTOR), toRupiah.getRate(), 1e-9);
+    }
+
+    @Test
+    void convert_shouldRejectUnsupportedCurrency() {
+        // Arrange
+        publishRates();
+
+        // Act & Assert
+        assertThrows(InvalidParameterException.class, () -> conversionService.convert("USD", "XYZ", 1, false));
+        assertThrows(InvalidParameterException.class, () -> conversionService.convert("DOLLAR", "EUR", 1, false));
+    }
+
+    @Test
+    void convert_shouldRejectNegativeAmount() {
+        // Arrange
+        publishRates();
+
+        // Act & Assert
+        assertThrows(InvalidParameterException.class, () -> conversionService.convert("USD", "EUR", -1, false));
+    }
+
+    @Test
+    void convert_shouldFail_whenRatesNotLoaded() {
+        assertThrows(CustomGlobalException.class, () -> conversionService.convert("USD", "EUR", 1, false));
+    }
+
+    private void publishRates() {
+        RateTable table = new RateTable("2024-01-15", "IDR", 1d,
+                new String[]{"USD", "EUR", "JPY"},
+                new double[]{0.000063, 0.000058, 0.0092});
+        store.publish("latest_idr_rates", new Object[]{new LatestRates(table, SPREAD_FACTOR, null)});
+    }
+}
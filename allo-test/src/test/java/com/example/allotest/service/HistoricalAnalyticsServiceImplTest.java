@@ -0,0 +1,132 @@
+package com.example.allotest.service;
+
+import com.example.allotest.dtos.OhlcDto;
+import com.example.allotest.dtos.RollingStatsDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoricalAnalyticsServiceImplTest {
+
+    private DataStore store;
+
+    private HistoricalAnalyticsServiceImpl analyticsService;
+
+    @BeforeEach
+    void setUp() {
+        store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        analyticsService = new HistoricalAnalyticsServiceImpl(store);
+    }
+
+    @Test
+    void refresh_shouldOnlyAppendNewDays_insteadOfRebuilding() {
+        // Arrange
+        publishHistory("2024-01-01", "2024-01-05");
+
+        // Act
+        publishHistory("2024-01-01", "2024-01-08");
+
+        // Assert - five days per currency at first, then the one new Monday
+        assertEquals(0, analyticsService.getRebuilds());
+        assertEquals(2 * 5 + 2, analyticsService.getAppendedDays());
+        RollingStatsDto average = analyticsService.getMovingAverage("usd", 2, "2024-01-05", null);
+        assertEquals("USD", average.getCurrency());
+        assertEquals("moving_average", average.getMetric());
+        assertArrayEquals(new String[]{"2024-01-05", "2024-01-08"}, average.getDates());
+        assertEquals((rate("2024-01-04") + rate("2024-01-05")) / 2, average.getValues()[0], 1e-15);
+        assertEquals((rate("2024-01-05") + rate("2024-01-08")) / 2, average.getValues()[1], 1e-15);
+    }
+
+    @Test
+    void getOhlc_shouldReturnWeeklyBars() {
+        // Arrange
+        publishHistory("2024-01-01", "2024-01-10");
+
+        // Act
+        OhlcDto bars = analyticsService.getOhlc("EUR", "WEEK", null, null);
+
+        // Assert
+        assertEquals("week", bars.getPeriod());
+        assertArrayEquals(new String[]{"2024-01-01", "2024-01-08"}, bars.getPeriodStarts());
+        assertEquals(rate("2024-01-01") * 0.9, bars.getOpen()[0], 1e-15);
+        assertEquals(rate("2024-01-10") * 0.9, bars.getClose()[1], 1e-15);
+    }
+
+    @Test
+    void getVolatility_shouldRejectBadParameters() {
+        // Arrange
+        assertThrows(CustomGlobalException.class, () -> analyticsService.getVolatility("USD", 5, null, null));
+        publishHistory("2024-01-01", "2024-01-10");
+
+        // Act & Assert
+        assertThrows(InvalidParameterException.class, () -> analyticsService.getVolatility("USD", 1, null, null));
+        assertThrows(InvalidParameterException.class, () -> analyticsService.getVolatility("XYZ", 5, null, null));
+        assertThrows(InvalidParameterException.class, () -> analyticsService.getOhlc("USD", "year", null, null));
+        assertThrows(InvalidParameterException.class, () -> analyticsService.getMovingAverage("USD", 5, "yesterday", null));
+        // eight weekdays give three full windows of five returns
+        assertEquals(3, analyticsService.getVolatility("USD", 5, null, null).getValues().length);
+    }
+
+    @Test
+    void concurrentQueries_shouldSyncRestoredSeriesOnce_andAgreeOnResult() throws Exception {
+        // Arrange - restored from disk, so nothing was synced at publish time
+        store.restore(3, Map.of("historical_idr_series", new Object[]{history("2024-01-01", "2024-01-31")}),
+                Map.of("historical_idr_series", Instant.now()));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<double[]>> queries = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            queries.add(() -> analyticsService.getMovingAverage("USD", 5, null, null).getValues());
+        }
+
+        try {
+            // Act
+            List<Future<double[]>> results = executor.invokeAll(queries);
+
+            // Assert - 23 weekdays per currency appended once, every query saw the same analytics
+            assertEquals(2 * 23, analyticsService.getAppendedDays());
+            double[] expected = results.get(0).get();
+            assertEquals(19, expected.length);
+            for (Future<double[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void publishHistory(String from, String to) {
+        store.publish("historical_idr_series", new Object[]{history(from, to)});
+    }
+
+    private static HistoricalRates history(String from, String to) {
+        HistoricalRates.Builder builder = new HistoricalRates.Builder("IDR");
+        for (LocalDate day = LocalDate.parse(from); !day.isAfter(LocalDate.parse(to)); day = day.plusDays(1)) {
+            if (day.getDayOfWeek().getValue() <= 5) {
+                builder.add("USD", (int) day.toEpochDay(), rate(day.toString()));
+                builder.add("EUR", (int) day.toEpochDay(), rate(day.toString()) * 0.9);
+            }
+        }
+        return builder.build();
+    }
+
+    private static double rate(String date) {
+        return 0.000063 + LocalDate.parse(date).getDayOfMonth() * 1e-7;
+    }
+}
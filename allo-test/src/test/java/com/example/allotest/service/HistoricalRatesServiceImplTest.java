@@ -0,0 +1,148 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.QueryCacheProperties;
+import com.example.allotest.dtos.HistoricalAsOfDto;
+import com.example.allotest.dtos.HistoricalRangeDto;
+import com.example.allotest.exceptions.CustomGlobalException;
+import com.example.allotest.exceptions.InvalidParameterException;
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HistoricalRatesServiceImplTest {
+
+    private DataStore store;
+
+    private IDataFetcher upstream;
+
+    private HistoricalRatesServiceImpl historicalRatesService;
+
+    @BeforeEach
+    void setUp() {
+        store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        upstream = mock(IDataFetcher.class);
+        historicalRatesService = new HistoricalRatesServiceImpl(store,
+                new ApiClientServiceImpl(Map.of("historical_idr_usd", upstream), new QueryCache(new QueryCacheProperties()),
+                new CircuitBreakerRegistry(new CircuitBreakerProperties()), new FetchMetrics(new SimpleMeterRegistry())));
+    }
+
+    @Test
+    void getRange_shouldReturnOnlyDaysInsideRange() {
+        // Arrange
+        publishHistory();
+
+        // Act
+        HistoricalRangeDto range = historicalRatesService.getRange("usd", "2024-01-02", "2024-01-04").block();
+
+        // Assert
+        assertEquals("IDR", range.getBase());
+        assertEquals("USD", range.getCurrency());
+        assertArrayEquals(new String[]{"2024-01-02", "2024-01-04"}, range.getDates());
+        assertArrayEquals(new double[]{0.000064, 0.000063}, range.getRates());
+        assertEquals("2024-01-02", range.getStartDate());
+        assertEquals("2024-01-04", range.getEndDate());
+    }
+
+    @Test
+    void getRange_shouldReturnWholeSeries_whenNoBoundsGiven() {
+        // Arrange
+        publishHistory();
+
+        // Act
+        HistoricalRangeDto range = historicalRatesService.getRange("USD", null, null).block();
+
+        // Assert
+        assertEquals(4, range.getDates().length);
+    }
+
+    @Test
+    void getRange_shouldFetchUpstream_whenRangeStartsBeforeLoadedSeries() {
+        // Arrange
+        publishHistory();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("base", "IDR");
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        rates.put("2023-12-28", Map.of("USD", 0.000061));
+        rates.put("2023-12-29", Map.of("USD", 0.000062));
+        response.put("rates", rates);
+        when(upstream.fetchDataAsync(anyMap())).thenReturn(Mono.just(new Object[]{response}));
+
+        // Act
+        HistoricalRangeDto range = historicalRatesService.getRange("USD", "2023-12-28", "2023-12-29").block();
+
+        // Assert
+        assertArrayEquals(new String[]{"2023-12-28", "2023-12-29"}, range.getDates());
+        assertArrayEquals(new double[]{0.000061, 0.000062}, range.getRates());
+        verify(upstream).fetchDataAsync(Map.of("start", "2023-12-28", "end", "2023-12-29", "to", "USD"));
+    }
+
+    @Test
+    void getRange_shouldRejectInvertedRange() {
+        // Arrange
+        publishHistory();
+
+        // Act & Assert
+        assertThrows(InvalidParameterException.class,
+                () -> historicalRatesService.getRange("USD", "2024-01-05", "2024-01-01"));
+    }
+
+    @Test
+    void getAsOf_shouldFallBackToLastPublishedDay() {
+        // Arrange
+        publishHistory();
+
+        // Act
+        HistoricalAsOfDto asOf = historicalRatesService.getAsOf("USD", "2024-01-03");
+
+        // Assert
+        assertEquals("2024-01-03", asOf.getRequestedDate());
+        assertEquals("2024-01-02", asOf.getDate());
+        assertEquals(0.000064, asOf.getRate());
+    }
+
+    @Test
+    void getAsOf_shouldRejectDateBeforeSeriesStarts_andBadInput() {
+        // Arrange
+        publishHistory();
+
+        // Act & Assert
+        assertThrows(InvalidParameterException.class, () -> historicalRatesService.getAsOf("USD", "2023-12-31"));
+        assertThrows(InvalidParameterException.class, () -> historicalRatesService.getAsOf("USD", "yesterday"));
+        assertThrows(InvalidParameterException.class, () -> historicalRatesService.getAsOf("XYZ", "2024-01-02"));
+    }
+
+    @Test
+    void getRange_shouldFail_whenHistoryNotLoaded() {
+        assertThrows(CustomGlobalException.class, () -> historicalRatesService.getRange("USD", null, null));
+    }
+
+    private void publishHistory() {
+        int day1 = (int) LocalDate.parse("2024-01-01").toEpochDay();
+        HistoricalRates rates = new HistoricalRates.Builder("IDR")
+                .add("USD", day1, 0.000063)
+                .add("USD", day1 + 1, 0.000064)
+                .add("USD", day1 + 3, 0.000063)
+                .add("USD", day1 + 4, 0.000065)
+                .build();
+        store.publish("historical_idr_series", new Object[]{rates});
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.QueryCacheProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCacheTest {
+
+    @Test
+    void get_shouldExpireEntries_afterTtlOfTheirResource() {
+        // Arrange
+        QueryCacheProperties properties = new QueryCacheProperties();
+        properties.setDefaultTtl(Duration.ofMinutes(1));
+        properties.getTtl().put("historical_idr_usd", Duration.ofHours(1));
+        AtomicLong now = new AtomicLong();
+        QueryCache cache = new QueryCache(properties, now::get);
+        QueryKey shortLived = new QueryKey("latest_idr_rates", Map.of("to", "USD"));
+        QueryKey longLived = new QueryKey("historical_idr_usd", Map.of("start", "2020-01-01"));
+        cache.put(shortLived, new Object[]{"latest"});
+        cache.put(longLived, new Object[]{"history"});
+
+        // Act
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        // Assert
+        assertNull(cache.get(shortLived));
+        assertEquals("history", cache.get(longLived)[0]);
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+    }
+
+    @Test
+    void put_shouldEvictByEstimatedSize_notEntryCount() {
+        // Arrange
+        QueryCacheProperties properties = new QueryCacheProperties();
+        properties.setMaxWeight(DataSize.ofKilobytes(8));
+        QueryCache cache = new QueryCache(properties);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            cache.put(new QueryKey("historical_idr_usd", Map.of("start", "2020-01-" + (10 + i))),
+                    new Object[]{"x".repeat(1_000)});
+        }
+        cache.cleanUp();
+
+        // Assert
+        assertTrue(cache.getWeightedSize() <= DataSize.ofKilobytes(8).toBytes());
+        assertTrue(cache.getStats().evictionCount() > 0);
+    }
+
+    @Test
+    void get_shouldBypassCache_whenDisabled() {
+        // Arrange
+        QueryCacheProperties properties = new QueryCacheProperties();
+        properties.setEnabled(false);
+        QueryCache cache = new QueryCache(properties);
+        QueryKey key = new QueryKey("historical_idr_usd", Map.of("start", "2020-01-01"));
+
+        // Act
+        cache.put(key, new Object[]{"history"});
+
+        // Assert
+        assertNull(cache.get(key));
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.allotest.service;
+
+import com.example.allotest.config.RateStreamProperties;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.store.DataStore;
+import com.example.allotest.store.ResponseSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.Disposable;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateUpdateStreamTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private DataStore store;
+
+    private RateUpdateStream stream;
+
+    @BeforeEach
+    void setUp() {
+        store = new DataStore(new ResponseSerializer(jsonMapper));
+        RateStreamProperties properties = new RateStreamProperties();
+        properties.setHeartbeat(Duration.ofHours(1));
+        stream = new RateUpdateStream(store, jsonMapper, properties);
+    }
+
+    @Test
+    void subscribe_shouldSendCurrentRates_thenOnlyTheRatesThatChanged() {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.subscribe().subscribe(events::add);
+
+        // Act
+        store.publish("latest_idr_rates", latest(0.000062, 0.000057));
+
+        // Assert
+        subscription.dispose();
+        assertEquals(2, events.size());
+        assertEquals(RateUpdateStream.SNAPSHOT_EVENT, events.get(0).event());
+        assertEquals(2, data(events.get(0)).get("rates").size());
+        assertEquals(RateUpdateStream.UPDATE_EVENT, events.get(1).event());
+        JsonNode update = data(events.get(1));
+        assertEquals(1, update.get("rates").size());
+        assertEquals(0.000062, update.get("rates").get("USD").asDouble());
+        assertEquals(store.getSnapshot().getVersion(), update.get("version").asLong());
+        assertEquals(Long.toString(store.getSnapshot().getVersion()), events.get(1).id());
+    }
+
+    @Test
+    void subscribe_shouldStayQuiet_whenRefreshBringsNothingNewForLatestRates() {
+        // Arrange
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        List<ServerSentEvent<String>> events = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.subscribe().subscribe(events::add);
+
+        // Act
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        store.publish("supported_currencies", new Object[]{"currencies"});
+
+        // Assert
+        subscription.dispose();
+        assertEquals(1, events.size());
+        assertEquals(RateUpdateStream.SNAPSHOT_EVENT, events.get(0).event());
+    }
+
+    @Test
+    void subscribe_shouldNotRepeatBufferedUpdates_alreadyContainedInSnapshot() {
+        // Arrange - two changes after the snapshot event a late subscriber is served was cached
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+        stream.subscribe().take(1).blockLast(Duration.ofSeconds(1));
+        store.publish("latest_idr_rates", latest(0.000062, 0.000057));
+        store.publish("latest_idr_rates", latest(0.000062, 0.000058));
+
+        // Act
+        List<ServerSentEvent<String>> events = stream.subscribe()
+                .take(Duration.ofMillis(200))
+                .collectList()
+                .block(Duration.ofSeconds(1));
+
+        // Assert - the snapshot already holds both changes, so the buffered updates are dropped
+        assertNotNull(events);
+        assertEquals(1, events.size());
+        JsonNode snapshot = data(events.get(0));
+        assertEquals(0.000062, snapshot.get("rates").get("USD").asDouble());
+        assertEquals(0.000058, snapshot.get("rates").get("EUR").asDouble());
+        assertEquals(0, stream.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_shouldComplete_onceTheStreamTimeoutHasPassed() {
+        // Arrange
+        RateStreamProperties properties = new RateStreamProperties();
+        properties.setHeartbeat(Duration.ofHours(1));
+        properties.setTimeout(Duration.ofMillis(100));
+        RateUpdateStream shortLived = new RateUpdateStream(store, jsonMapper, properties);
+        store.publish("latest_idr_rates", latest(0.000061, 0.000057));
+
+        // Act
+        List<ServerSentEvent<String>> events = shortLived.subscribe().collectList().block(Duration.ofSeconds(5));
+
+        // Assert - the snapshot event, then a clean end the client reconnects after
+        assertEquals(1, events.size());
+        assertEquals(RateUpdateStream.SNAPSHOT_EVENT, events.get(0).event());
+    }
+
+    private JsonNode data(ServerSentEvent<String> event) {
+        return jsonMapper.readTree(event.data());
+    }
+
+    private static Object[] latest(double usd, double eur) {
+        return new Object[]{new LatestRates(
+                new RateTable("2024-01-05", "IDR", 1, new String[]{"USD", "EUR"}, new double[]{usd, eur}),
+                0.00836, null)};
+    }
+}
@@ -1,15 +1,20 @@
 package com.example.allotest.store;
 
 import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -22,7 +27,8 @@ import static org.springframework.mock.http.server.reactive.MockServerHttpReques
 
 @SpringBootTest
 @TestPropertySource(properties = {
-        "github.username=testuser"
+        "github.username=testuser",
+        "data.snapshot.enabled=false"
 })
 class DataLoaderIntegrationTest {
 
@@ -35,6 +41,9 @@ class DataLoaderIntegrationTest {
     @Autowired
     private WebClient webClient;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @TestConfiguration
     static class TestConfig {
         @Bean
@@ -60,6 +69,11 @@ class DataLoaderIntegrationTest {
             }});
 
             when(responseSpec.bodyToMono(Object.class)).thenReturn(Mono.just(mockResponse));
+            when(responseSpec.bodyToMono(byte[].class))
+                    .thenReturn(Mono.just(JsonMapper.builder().build().writeValueAsBytes(mockResponse)));
+            when(responseSpec.bodyToFlux(DataBuffer.class))
+                    .thenReturn(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(
+                            JsonMapper.builder().build().writeValueAsBytes(mockResponse))));
 
             return webClient;
         }
@@ -152,4 +166,19 @@ class DataLoaderIntegrationTest {
         assertTrue(loadedStrategies >= 0,
                 "ApplicationRunner should have attempted to execute all strategies");
     }
+
+    @Test
+    void metrics_shouldRecordStartupFetchesAndStoreLookups() {
+        // Act
+        dataStore.getFromStore("latest_idr_rates");
+
+        // Assert - the startup load went through the fetch timers and the store binder is registered
+        assertEquals(1, meterRegistry.get("finance.fetcher.duration")
+                .tag("resourceType", "latest_idr_rates")
+                .tag("outcome", "success")
+                .timer().count());
+        assertTrue(meterRegistry.get("finance.store.lookups").tag("result", "hit").functionCounter().count() >= 1);
+        assertNotNull(meterRegistry.find("finance.store.entry.age").tag("resourceType", "latest_idr_rates").timeGauge());
+        assertNotNull(meterRegistry.find("finance.fetch.requests").functionCounter());
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.allotest.store;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.strategy.CircuitBreaker;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DataLoaderTest {
+
+    @Test
+    void run_shouldPublishOffTheThreadThatDeliveredTheResponse() throws Exception {
+        // Arrange - the fetcher answers on a stand-in for the client's event loop
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        List<String> publishedOn = new CopyOnWriteArrayList<>();
+        store.addPublishListener((key, previous, current, snapshot) -> publishedOn.add(Thread.currentThread().getName()));
+        Scheduler eventLoop = Schedulers.newSingle("event-loop");
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.just(new Object[]{"data"}).publishOn(eventLoop));
+        DataLoader loader = new DataLoader(Map.of("rates", fetcher), store, Duration.ofSeconds(5), disabledFileStore(),
+                breakers, fetchMetrics);
+
+        try {
+            // Act
+            loader.run(null);
+
+            // Assert
+            assertEquals(1, publishedOn.size());
+            assertFalse(publishedOn.get(0).startsWith("event-loop"), publishedOn.get(0));
+        } finally {
+            eventLoop.dispose();
+        }
+    }
+
+    @Test
+    void run_shouldCountStartupFailures_onTheResourcesBreaker() throws Exception {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.error(new RuntimeException("API connection failed")));
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setFailureThreshold(1);
+        CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(properties);
+        DataLoader loader = new DataLoader(Map.of("rates", fetcher), store, Duration.ofSeconds(5), disabledFileStore(),
+                breakers, fetchMetrics);
+
+        // Act
+        loader.run(null);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breakers.breakerFor("rates").getState());
+        assertTrue(loader.getLastReport().getFailures().containsKey("rates"));
+    }
+
+    private final CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(new CircuitBreakerProperties());
+    private final FetchMetrics fetchMetrics = new FetchMetrics(new SimpleMeterRegistry());
+
+    @Test
+    void run_shouldStoreEveryResource_whenAllFetchersSucceed() throws Exception {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        Map<String, IDataFetcher> strategies = new LinkedHashMap<>();
+        strategies.put("first", fetcherReturning("first data"));
+        strategies.put("second", fetcherReturning("second data"));
+        DataLoader loader = new DataLoader(strategies, store, Duration.ofSeconds(5), disabledFileStore(), breakers, fetchMetrics);
+
+        // Act
+        loader.run(null);
+
+        // Assert
+        assertEquals("first data", store.getFromStore("first")[0]);
+        assertEquals("second data", store.getFromStore("second")[0]);
+        assertFalse(loader.getLastReport().hasFailures());
+        assertEquals(2, loader.getLastReport().getLoaded().size());
+    }
+
+    @Test
+    void run_shouldCollectFailurePerResource_withoutAbortingOtherFetchers() throws Exception {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        IDataFetcher failing = mock(IDataFetcher.class);
+        when(failing.fetchDataAsync()).thenReturn(Mono.error(new IllegalStateException("upstream down")));
+
+        Map<String, IDataFetcher> strategies = new LinkedHashMap<>();
+        strategies.put("failing", failing);
+        strategies.put("healthy", fetcherReturning("healthy data"));
+        DataLoader loader = new DataLoader(strategies, store, Duration.ofSeconds(5), disabledFileStore(), breakers, fetchMetrics);
+
+        // Act
+        loader.run(null);
+
+        // Assert
+        assertNull(store.getFromStore("failing"));
+        assertEquals("healthy data", store.getFromStore("healthy")[0]);
+        assertTrue(loader.getLastReport().getFailures().get("failing").contains("upstream down"));
+    }
+
+    @Test
+    void run_shouldRunFetchersInParallel_andTimeOutSlowOnes() throws Exception {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        IDataFetcher slow = fetcherReturning("too late", Duration.ofSeconds(3));
+        IDataFetcher medium = fetcherReturning("medium data", Duration.ofMillis(200));
+        IDataFetcher otherMedium = fetcherReturning("other medium data", Duration.ofMillis(200));
+
+        Map<String, IDataFetcher> strategies = new LinkedHashMap<>();
+        strategies.put("slow", slow);
+        strategies.put("medium", medium);
+        strategies.put("other_medium", otherMedium);
+        DataLoader loader = new DataLoader(strategies, store, Duration.ofMillis(500), disabledFileStore(), breakers, fetchMetrics);
+
+        // Act
+        loader.run(null);
+
+        // Assert - the two medium fetchers overlap and the slow one is cut off at its deadline
+        assertNull(store.getFromStore("slow"));
+        assertEquals("medium data", store.getFromStore("medium")[0]);
+        assertEquals("other medium data", store.getFromStore("other_medium")[0]);
+        assertTrue(loader.getLastReport().getFailures().get("slow").contains("timed out"));
+        assertTrue(loader.getLastReport().getDurationMillis() < 2_000,
+                "Loader should not wait for the slow fetcher to finish");
+    }
+
+    @Test
+    void run_shouldServeRestoredSnapshot_beforeLiveFetchCompletes(@TempDir Path dir) throws Exception {
+        // Arrange
+        SnapshotFileStore fileStore = new SnapshotFileStore(true, dir.resolve("snapshot.bin"));
+        DataStore previousRun = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        previousRun.publish("first", new Object[]{"saved data"});
+        fileStore.save(previousRun.getSnapshot());
+
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        IDataFetcher slow = fetcherReturning("live data", Duration.ofSeconds(1));
+        DataLoader loader = new DataLoader(Map.of("first", slow), store, Duration.ofSeconds(5), fileStore, breakers, fetchMetrics);
+
+        // Act
+        long startedAt = System.nanoTime();
+        loader.run(null);
+        long tookMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        // Assert - ready straight away from disk, then replaced once the live fetch lands
+        assertTrue(store.isLoaded());
+        assertTrue(tookMillis < 1_000, "Warm start should not wait for the fetcher");
+        assertEquals("saved data", store.getFromStore("first")[0]);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!"live data".equals(store.getFromStore("first")[0]) && System.currentTimeMillis() < deadline) {
+            sleep(20);
+        }
+        assertEquals("live data", store.getFromStore("first")[0]);
+    }
+
+    private static SnapshotFileStore disabledFileStore() {
+        return new SnapshotFileStore(false, Path.of("unused"));
+    }
+
+    private static IDataFetcher fetcherReturning(Object value) {
+        return () -> Mono.just(new Object[]{value});
+    }
+
+    private static IDataFetcher fetcherReturning(Object value, Duration latency) {
+        return () -> Mono.delay(latency).map(ignored -> new Object[]{value});
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.allotest.store;
+
+import com.example.allotest.config.CircuitBreakerProperties;
+import com.example.allotest.config.RefreshProperties;
+import com.example.allotest.strategy.CircuitBreaker;
+import com.example.allotest.strategy.CircuitBreakerRegistry;
+import com.example.allotest.strategy.FetchMetrics;
+import com.example.allotest.strategy.IDataFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DataRefreshSchedulerTest {
+
+    @Test
+    void refresh_shouldPublishNewSnapshot_whenFetchSucceeds() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.just(new Object[]{"new"}));
+        DataRefreshScheduler scheduler = newScheduler(fetcher, store, new CircuitBreakerRegistry(new CircuitBreakerProperties()));
+        long versionBefore = store.getSnapshot().getVersion();
+
+        // Act
+        boolean refreshed = scheduler.refresh("latest_idr_rates");
+
+        // Assert
+        assertTrue(refreshed);
+        assertEquals("new", store.getFromStore("latest_idr_rates")[0]);
+        assertEquals(versionBefore + 1, store.getSnapshot().getVersion());
+        assertFalse(store.isStale("latest_idr_rates"));
+    }
+
+    @Test
+    void refresh_shouldKeepCurrentSnapshotAndMarkItStale_whenFetchFails() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.error(new RuntimeException("API connection failed")));
+        DataRefreshScheduler scheduler = newScheduler(fetcher, store, new CircuitBreakerRegistry(new CircuitBreakerProperties()));
+        DataSnapshot before = store.getSnapshot();
+
+        // Act
+        boolean refreshed = scheduler.refresh("latest_idr_rates");
+
+        // Assert
+        assertFalse(refreshed);
+        assertSame(before, store.getSnapshot());
+        assertEquals("old", store.getFromStore("latest_idr_rates")[0]);
+        assertTrue(store.isStale("latest_idr_rates"));
+        assertNotNull(store.getStaleSince("latest_idr_rates"));
+    }
+
+    @Test
+    void refresh_shouldStopCallingUpstream_onceBreakerIsOpen() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.error(new RuntimeException("API connection failed")));
+        CircuitBreakerProperties properties = new CircuitBreakerProperties();
+        properties.setFailureThreshold(2);
+        CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(properties);
+        DataRefreshScheduler scheduler = newScheduler(fetcher, store, breakers);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            scheduler.refresh("latest_idr_rates");
+        }
+
+        // Assert
+        verify(fetcher, times(2)).fetchDataAsync();
+        assertEquals(CircuitBreaker.State.OPEN, breakers.breakerFor("latest_idr_rates").getState());
+        assertEquals("old", store.getFromStore("latest_idr_rates")[0]);
+    }
+
+    @Test
+    void refresh_shouldSkip_whileAnotherRefreshOfSameKeyIsRunning() throws Exception {
+        // Arrange - the first fetch holds until the overlapping call has been made
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IDataFetcher fetcher = mock(IDataFetcher.class);
+        when(fetcher.fetchDataAsync()).thenReturn(Mono.fromCallable(() -> {
+            fetching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Object[]{"new"};
+        }));
+        DataRefreshScheduler scheduler = newScheduler(fetcher, store, new CircuitBreakerRegistry(new CircuitBreakerProperties()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // Act
+            Future<Boolean> first = executor.submit(() -> scheduler.refresh("latest_idr_rates"));
+            assertTrue(fetching.await(5, TimeUnit.SECONDS));
+            boolean overlapping = scheduler.refresh("latest_idr_rates");
+            release.countDown();
+
+            // Assert
+            assertFalse(overlapping);
+            assertTrue(first.get(5, TimeUnit.SECONDS));
+            verify(fetcher, times(1)).fetchDataAsync();
+            assertTrue(scheduler.refresh("latest_idr_rates"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static DataRefreshScheduler newScheduler(IDataFetcher fetcher, DataStore store, CircuitBreakerRegistry breakers) {
+        return new DataRefreshScheduler(
+                Map.of("latest_idr_rates", fetcher), store, new RefreshProperties(),
+                new SnapshotFileStore(false, Path.of("unused")), Executors.defaultThreadFactory(), breakers,
+                new FetchMetrics(new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.allotest.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataStoreTest {
+
+    @Test
+    void publish_shouldIncrementVersion_andStampFetchTime() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        long initialVersion = store.getSnapshot().getVersion();
+
+        // Act
+        DataSnapshot first = store.publish("latest_idr_rates", new Object[]{"v1"});
+        DataSnapshot second = store.publish("supported_currencies", new Object[]{"v2"});
+
+        // Assert
+        assertEquals(initialVersion + 1, first.getVersion());
+        assertEquals(initialVersion + 2, second.getVersion());
+        assertNotNull(second.getFetchedAt());
+        assertNotNull(second.getEntry("latest_idr_rates").getFetchedAt());
+        assertSame(second, store.getSnapshot());
+    }
+
+    @Test
+    void publish_shouldNotMutateSnapshotAlreadyHeldByReader() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        DataSnapshot heldByReader = store.getSnapshot();
+
+        // Act
+        store.publish("latest_idr_rates", new Object[]{"new"});
+
+        // Assert - the reader keeps a consistent view while the store moves on
+        assertEquals("old", heldByReader.getEntry("latest_idr_rates").getData()[0]);
+        assertEquals("new", store.getFromStore("latest_idr_rates")[0]);
+    }
+
+    @Test
+    void putIntoStore_shouldBeIgnoredAfterLoaded_butPublishShouldStillRefresh() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.putIntoStore("latest_idr_rates", new Object[]{"initial"});
+        store.makeLoaded();
+
+        // Act
+        store.putIntoStore("latest_idr_rates", new Object[]{"ignored"});
+        store.publish("latest_idr_rates", new Object[]{"refreshed"});
+
+        // Assert
+        assertEquals("refreshed", store.getFromStore("latest_idr_rates")[0]);
+    }
+
+    @Test
+    void publish_shouldKeepSerializedBytes_whenPayloadUnchanged() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        SerializedResponse first = store.getSnapshot().getEntry("supported_currencies").getResponse();
+
+        // Act
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        SerializedResponse unchanged = store.getSnapshot().getEntry("supported_currencies").getResponse();
+        store.publish("supported_currencies", new Object[]{Map.of("EUR", "Euro")});
+        SerializedResponse changed = store.getSnapshot().getEntry("supported_currencies").getResponse();
+
+        // Assert
+        assertSame(first, unchanged);
+        assertNotEquals(first.getEtag(), changed.getEtag());
+    }
+
+    @Test
+    void publish_shouldKeepEntryVersion_andSkipListeners_whenPayloadUnchanged() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        List<String> notified = new ArrayList<>();
+        store.addPublishListener((key, previous, current, snapshot) -> notified.add(key + "@" + current.getVersion()));
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+
+        // Act
+        store.publish("latest_idr_rates", new Object[]{"rates"});
+        store.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+
+        // Assert
+        assertEquals(3, store.getSnapshot().getVersion());
+        assertEquals(1, store.getSnapshot().getEntry("supported_currencies").getVersion());
+        assertEquals(2, store.getSnapshot().getEntry("latest_idr_rates").getVersion());
+        assertEquals(List.of("supported_currencies@1", "latest_idr_rates@2"), notified);
+    }
+
+    @Test
+    void publish_shouldCompareAgainstEntryPublishedConcurrently_ratherThanTheOneReadFirst() {
+        // Arrange - the same payload gets published by someone else while this publish serializes
+        DataStore[] holder = new DataStore[1];
+        boolean[] raced = new boolean[1];
+        ResponseSerializer serializer = new ResponseSerializer(JsonMapper.builder().build()) {
+            @Override
+            public SerializedResponse serialize(String resourceType, Object[] data, SerializedResponse previous) {
+                if ("new".equals(data[0]) && !raced[0]) {
+                    raced[0] = true;
+                    holder[0].publish(resourceType, new Object[]{"new"});
+                }
+                return super.serialize(resourceType, data, previous);
+            }
+        };
+        DataStore store = new DataStore(serializer);
+        holder[0] = store;
+        store.publish("latest_idr_rates", new Object[]{"old"});
+        List<String> notified = new ArrayList<>();
+        store.addPublishListener((key, previous, current, snapshot) ->
+                notified.add(previous.getData()[0] + "->" + current.getData()[0] + "@" + current.getVersion()));
+
+        // Act
+        DataSnapshot published = store.publish("latest_idr_rates", new Object[]{"new"});
+
+        // Assert - only the publish that won the race counts as a change
+        assertEquals(List.of("old->new@2"), notified);
+        assertEquals(3, published.getVersion());
+        assertEquals(2, published.getEntry("latest_idr_rates").getVersion());
+    }
+
+    @Test
+    void bindTo_shouldExposeLookupCountersAndAgeGauges() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        store.bindTo(registry);
+
+        // Act
+        store.publish("latest_idr_rates", new Object[]{"rates"});
+        store.getFromStore("latest_idr_rates");
+        store.getEntry("latest_idr_rates");
+        store.getFromStore("supported_currencies");
+        store.markStale("latest_idr_rates");
+
+        // Assert
+        assertEquals(2, registry.get("finance.store.lookups").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("finance.store.lookups").tag("result", "miss").functionCounter().count());
+        double age = registry.get("finance.store.entry.age").tag("resourceType", "latest_idr_rates")
+                .timeGauge().value(TimeUnit.SECONDS);
+        assertTrue(age >= 0 && age < 60);
+        assertTrue(registry.get("finance.store.snapshot.age").timeGauge().value(TimeUnit.SECONDS) < 60);
+        assertEquals(1, registry.get("finance.store.entry.stale").tag("resourceType", "latest_idr_rates")
+                .gauge().value());
+    }
+}
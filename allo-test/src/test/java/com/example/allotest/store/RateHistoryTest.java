@@ -0,0 +1,83 @@
+package com.example.allotest.store;
+
+import com.example.allotest.config.DeltaProperties;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateHistoryTest {
+
+    @Test
+    void tableAt_shouldReturnNewestTablePublishedAtOrBeforeVersion_untilOverwritten() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        DeltaProperties properties = new DeltaProperties();
+        properties.setHistory(2);
+        RateHistory history = new RateHistory(store, properties);
+
+        // Act
+        store.publish("latest_idr_rates", latest(0.000061));
+        store.publish("supported_currencies", new Object[]{"currencies"});
+        store.publish("latest_idr_rates", latest(0.000062));
+        store.publish("latest_idr_rates", latest(0.000063));
+
+        // Assert - versions 1 and 3 were stored, version 1 has been pushed out by version 4
+        assertNull(history.tableAt(1));
+        assertNull(history.tableAt(2));
+        assertEquals(0.000062, history.tableAt(3).rateOf("USD"));
+        assertEquals(0.000063, history.tableAt(4).rateOf("USD"));
+        assertEquals(0.000063, history.tableAt(9).rateOf("USD"));
+    }
+
+    @Test
+    void onPublish_shouldKeepRestoredTable_asBaseForFirstRefresh() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        RateHistory history = new RateHistory(store, new DeltaProperties());
+        store.restore(7, Map.of("latest_idr_rates", latest(0.000061)), Map.of("latest_idr_rates", Instant.now()));
+
+        // Act
+        store.publish("latest_idr_rates", latest(0.000062));
+
+        // Assert
+        assertNull(history.tableAt(6));
+        assertEquals(0.000061, history.tableAt(7).rateOf("USD"));
+        assertEquals(0.000062, history.tableAt(8).rateOf("USD"));
+    }
+
+    @Test
+    void cachedDelta_shouldHoldHistorySizedDeltasOfCurrentEntry_untilItIsReplaced() {
+        // Arrange
+        DataStore store = new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+        DeltaProperties properties = new DeltaProperties();
+        properties.setHistory(2);
+        RateHistory history = new RateHistory(store, properties);
+        store.publish("latest_idr_rates", latest(0.000061));
+        SerializedResponse delta = store.getEntry("latest_idr_rates").getResponse();
+
+        // Act
+        history.cacheDelta(0, 1, delta);
+        history.cacheDelta(1, 1, delta);
+        history.cachedDelta(0, 1);
+        history.cacheDelta(2, 1, delta);
+
+        // Assert - the least recently used since was dropped, and a new entry clears the rest
+        assertSame(delta, history.cachedDelta(0, 1));
+        assertNull(history.cachedDelta(1, 1));
+        assertSame(delta, history.cachedDelta(2, 1));
+        store.publish("latest_idr_rates", latest(0.000062));
+        assertNull(history.cachedDelta(0, 1));
+        assertNull(history.cachedDelta(0, 2));
+    }
+
+    private static Object[] latest(double usd) {
+        return new Object[]{new LatestRates(
+                new RateTable("2024-01-05", "IDR", 1, new String[]{"USD"}, new double[]{usd}), 0.00836, null)};
+    }
+}
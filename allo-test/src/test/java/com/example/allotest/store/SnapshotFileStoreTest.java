@@ -0,0 +1,114 @@
+package com.example.allotest.store;
+
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.LatestRates;
+import com.example.allotest.model.RateTable;
+import com.example.allotest.strategy.PricingEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileStoreTest {
+
+    @Test
+    void restoreInto_shouldBringBackEveryResource_withSameVersionAndBytes(@TempDir Path dir) {
+        // Arrange
+        DataStore original = newStore();
+        RateTable table = new RateTable("2024-01-05", "IDR", 1.0,
+                new String[]{"EUR", "USD"}, new double[]{0.000058, 0.000064});
+        original.publish("latest_idr_rates", new Object[]{new LatestRates(table, 0.00123, 15640.5,
+                PricingEngine.price(table, new double[]{0.002, 0.00123}))});
+        HistoricalRates.Builder builder = new HistoricalRates.Builder("IDR");
+        builder.add("USD", (int) LocalDate.parse("2024-01-02").toEpochDay(), 0.000064);
+        builder.add("USD", (int) LocalDate.parse("2024-01-03").toEpochDay(), 0.000062);
+        original.publish("historical_idr_series", new Object[]{builder.build()});
+        original.publish("supported_currencies", new Object[]{Map.of("USD", "United States Dollar")});
+        original.publish("historical_idr_usd", new Object[]{List.of(1, 2L, true, "x")});
+
+        SnapshotFileStore fileStore = new SnapshotFileStore(true, dir.resolve("snapshot.bin"));
+        fileStore.save(original.getSnapshot());
+
+        // Act
+        DataStore restored = newStore();
+        boolean wasRestored = fileStore.restoreInto(restored);
+
+        // Assert
+        assertTrue(wasRestored);
+        assertEquals(original.getSnapshot().getVersion(), restored.getSnapshot().getVersion());
+        original.getSnapshot().getEntries().forEach((key, entry) -> {
+            ResourceEntry copy = restored.getSnapshot().getEntry(key);
+            assertEquals(entry.getFetchedAt().toEpochMilli(), copy.getFetchedAt().toEpochMilli());
+            assertEquals(entry.getResponse().getEtag(), copy.getResponse().getEtag(), key);
+        });
+        LatestRates latest = (LatestRates) restored.getFromStore("latest_idr_rates")[0];
+        assertEquals(0.000064, latest.getRateTable().rateOf("USD"));
+        assertEquals(15640.5, latest.getUsdBuySpreadIdr());
+        assertEquals(0.002, latest.getPriceTable().spreadOf("EUR"));
+        assertEquals((1 / 0.000064) * (1 - 0.00123), latest.getPriceTable().sellOf("USD"));
+        HistoricalRates history = (HistoricalRates) restored.getFromStore("historical_idr_series")[0];
+        assertEquals(2, history.series("USD").size());
+    }
+
+    @Test
+    void restoreInto_shouldIgnoreCorruptFile(@TempDir Path dir) throws Exception {
+        // Arrange
+        Path path = dir.resolve("snapshot.bin");
+        Files.write(path, new byte[]{1, 2, 3, 4});
+        DataStore store = newStore();
+
+        // Act
+        boolean wasRestored = new SnapshotFileStore(true, path).restoreInto(store);
+
+        // Assert
+        assertFalse(wasRestored);
+        assertTrue(store.getSnapshot().getEntries().isEmpty());
+    }
+
+    @Test
+    void save_shouldDoNothing_whenDisabled(@TempDir Path dir) {
+        // Arrange
+        Path path = dir.resolve("snapshot.bin");
+        DataStore store = newStore();
+        store.publish("latest_idr_rates", new Object[]{"data"});
+
+        // Act
+        new SnapshotFileStore(false, path).save(store.getSnapshot());
+
+        // Assert
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void save_shouldLeaveFileAlone_whenRefreshBroughtSameContent(@TempDir Path dir) throws Exception {
+        // Arrange
+        Path path = dir.resolve("snapshot.bin");
+        DataStore store = newStore();
+        SnapshotFileStore fileStore = new SnapshotFileStore(true, path);
+        fileStore.save(store.publish("latest_idr_rates", new Object[]{"data"}));
+        byte[] saved = Files.readAllBytes(path);
+
+        // Act - a new snapshot version, same payload
+        fileStore.save(store.publish("latest_idr_rates", new Object[]{"data"}));
+        byte[] afterSameContent = Files.readAllBytes(path);
+        fileStore.save(store.publish("latest_idr_rates", new Object[]{"changed"}));
+
+        // Assert
+        assertArrayEquals(saved, afterSameContent);
+        DataStore restored = newStore();
+        assertTrue(fileStore.restoreInto(restored));
+        assertEquals("changed", restored.getFromStore("latest_idr_rates")[0]);
+        assertEquals(3, restored.getSnapshot().getVersion());
+    }
+
+    private static DataStore newStore() {
+        return new DataStore(new ResponseSerializer(JsonMapper.builder().build()));
+    }
+}
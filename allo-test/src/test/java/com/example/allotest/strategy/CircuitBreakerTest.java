@@ -0,0 +1,112 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.exceptions.CircuitOpenException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final CircuitBreaker breaker = new CircuitBreaker("latest_idr_rates", 3,
+            Duration.ofSeconds(30), Duration.ofSeconds(100), now::get);
+
+    @Test
+    void protect_shouldOpen_afterConsecutiveFailuresReachThreshold() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, () -> breaker.protect(failingCall()).block());
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(Duration.ofSeconds(30), breaker.getRetryDelay());
+    }
+
+    @Test
+    void protect_shouldFailFastWithoutCallingUpstream_whileOpen() {
+        // Arrange
+        openBreaker();
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        CircuitOpenException exception = assertThrows(CircuitOpenException.class,
+                () -> breaker.protect(Mono.fromSupplier(calls::incrementAndGet)).block());
+
+        // Assert
+        assertEquals(0, calls.get());
+        assertEquals("latest_idr_rates", exception.getResourceType());
+    }
+
+    @Test
+    void protect_shouldClose_whenHalfOpenProbeSucceeds() {
+        // Arrange
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        String result = breaker.protect(Mono.just("rates")).block();
+
+        // Assert
+        assertEquals("rates", result);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void protect_shouldAllowOnlyOneProbe_whileHalfOpen() {
+        // Arrange
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+
+        // Act
+        boolean probe = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+
+        // Assert
+        assertTrue(probe);
+        assertFalse(second);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void protect_shouldDoubleOpenPeriodUpToMax_whenProbesKeepFailing() {
+        // Arrange
+        openBreaker();
+
+        // Act & Assert - 30s, then 60s, then capped at 100s
+        for (Duration expected : new Duration[]{Duration.ofSeconds(60), Duration.ofSeconds(100), Duration.ofSeconds(100)}) {
+            now.addAndGet(breaker.getRetryDelay().toNanos());
+            assertThrows(IllegalStateException.class, () -> breaker.protect(failingCall()).block());
+            assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+            assertEquals(expected, breaker.getRetryDelay());
+        }
+    }
+
+    @Test
+    void protect_shouldResetFailureCount_afterSuccess() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> breaker.protect(failingCall()).block());
+        assertThrows(IllegalStateException.class, () -> breaker.protect(failingCall()).block());
+        breaker.protect(Mono.just("rates")).block();
+        assertThrows(IllegalStateException.class, () -> breaker.protect(failingCall()).block());
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+    }
+
+    private static Mono<String> failingCall() {
+        return Mono.error(new IllegalStateException("upstream down"));
+    }
+}
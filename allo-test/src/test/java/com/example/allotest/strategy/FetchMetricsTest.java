@@ -0,0 +1,51 @@
+package com.example.allotest.strategy;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetchMetricsTest {
+
+    @Test
+    void record_shouldTimeEachFetch_taggedByResourceAndOutcome() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FetchMetrics metrics = new FetchMetrics(registry);
+
+        // Act
+        metrics.record("latest_idr_rates", Mono.just("rates")).block();
+        metrics.record("latest_idr_rates", Mono.just("rates")).block();
+        assertThrows(IllegalStateException.class,
+                () -> metrics.record("latest_idr_rates", Mono.error(new IllegalStateException("upstream down"))).block());
+
+        // Assert
+        assertEquals(2, timer(registry, "success").count());
+        assertEquals(1, timer(registry, "failure").count());
+    }
+
+    @Test
+    void record_shouldStartTimingAtSubscription_notAtAssembly() throws Exception {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Mono<String> recorded = new FetchMetrics(registry).record("latest_idr_rates", Mono.just("rates"));
+
+        // Act
+        Thread.sleep(200);
+        recorded.block();
+
+        // Assert
+        assertTrue(timer(registry, "success").totalTime(TimeUnit.MILLISECONDS) < 200);
+    }
+
+    private static Timer timer(SimpleMeterRegistry registry, String outcome) {
+        return registry.get(FetchMetrics.TIMER_NAME)
+                .tag("resourceType", "latest_idr_rates")
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
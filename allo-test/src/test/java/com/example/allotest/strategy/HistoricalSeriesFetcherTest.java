@@ -0,0 +1,123 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.model.HistoricalRates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HistoricalSeriesFetcherTest {
+
+    @Mock
+    private WebClient webClient;
+
+    @Mock
+    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+
+    @Mock
+    private WebClient.RequestHeadersSpec requestHeadersSpec;
+
+    @Mock
+    private WebClient.ResponseSpec responseSpec;
+
+    private HistoricalSeriesFetcher historicalSeriesFetcher;
+
+    @BeforeEach
+    void setUp() {
+        historicalSeriesFetcher = new HistoricalSeriesFetcher(webClient);
+        ReflectionTestUtils.setField(historicalSeriesFetcher, "lookbackDays", 30);
+    }
+
+    @Test
+    void fetchData_shouldRequestOpenEndedRangeForAllCurrencies() {
+        // Arrange
+        String expectedUri = "/" + LocalDate.now(ZoneOffset.UTC).minusDays(30) + "..?from=IDR";
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(body(json(new LinkedHashMap<>())));
+
+        // Act
+        historicalSeriesFetcher.fetchData();
+
+        // Assert
+        verify(requestHeadersUriSpec, times(1)).uri(expectedUri);
+    }
+
+    @Test
+    void fetchData_shouldReturnColumnarHistoricalRates() {
+        // Arrange
+        Map<String, Object> mockResponse = new LinkedHashMap<>();
+        mockResponse.put("base", "IDR");
+        Map<String, Map<String, Double>> rates = new LinkedHashMap<>();
+        rates.put("2024-01-01", Map.of("USD", 0.000063, "EUR", 0.000058));
+        rates.put("2024-01-02", Map.of("USD", 0.000064, "EUR", 0.000057));
+        mockResponse.put("rates", rates);
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(body(json(mockResponse)));
+
+        // Act
+        Object[] result = historicalSeriesFetcher.fetchData();
+
+        // Assert
+        assertEquals(1, result.length);
+        assertTrue(result[0] instanceof HistoricalRates);
+        HistoricalRates historicalRates = (HistoricalRates) result[0];
+        assertEquals(2, historicalRates.seriesCount());
+        assertEquals(0.000064, historicalRates.series("USD").rateAt(1));
+    }
+
+    @Test
+    void fetchData_shouldHandleWebClientException() {
+        // Arrange
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToFlux(DataBuffer.class))
+                .thenReturn(Flux.error(new RuntimeException("Historical data unavailable")));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> historicalSeriesFetcher.fetchData());
+    }
+
+    @Test
+    void maxBodyBytes_shouldCoverDefaultLookbackBeyondDefaultCodecBuffer() {
+        // Arrange
+        ReflectionTestUtils.setField(historicalSeriesFetcher, "lookbackDays", 730);
+
+        // Act & Assert - two years of ~30 rates a day is around 600KB
+        assertTrue(historicalSeriesFetcher.maxBodyBytes() > 1024 * 1024);
+    }
+
+    // split in two so the fetcher has to join the chunks
+    private static Flux<DataBuffer> body(byte[] json) {
+        int half = json.length / 2;
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(json, 0, half)),
+                DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(json, half, json.length)));
+    }
+
+    private static byte[] json(Object body) {
+        return JsonMapper.builder().build().writeValueAsBytes(body);
+    }
+}
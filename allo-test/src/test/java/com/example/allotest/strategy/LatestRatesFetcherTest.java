@@ -1,5 +1,7 @@
 package com.example.allotest.strategy;
 
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.model.LatestRates;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -37,7 +40,7 @@ class LatestRatesFetcherTest {
 
     @BeforeEach
     void setUp() {
-        latestRatesFetcher = new LatestRatesFetcher(webClient);
+        latestRatesFetcher = new LatestRatesFetcher(webClient, new PricingEngine(new PricingProperties()));
         // Set the github username using reflection
         ReflectionTestUtils.setField(latestRatesFetcher, "githubUsername", TEST_GITHUB_USERNAME);
     }
@@ -60,7 +63,7 @@ class LatestRatesFetcherTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Object.class)).thenReturn(Mono.just(mockResponse));
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(json(mockResponse)));
 
         // Act
         Object[] result = latestRatesFetcher.fetchData();
@@ -68,24 +71,28 @@ class LatestRatesFetcherTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.length);
-        assertTrue(result[0] instanceof Map);
+        assertTrue(result[0] instanceof LatestRates);
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> resultMap = (Map<String, Object>) result[0];
-        assertNotNull(resultMap.get("rates"));
-        assertTrue(resultMap.get("rates") instanceof Map);
+        LatestRates latestRates = (LatestRates) result[0];
+        assertEquals("IDR", latestRates.getBase());
+        assertEquals("2024-01-15", latestRates.getDate());
+        assertNotNull(latestRates.getRates());
 
-        @SuppressWarnings("unchecked")
-        Map<String, Double> resultRates = (Map<String, Double>) resultMap.get("rates");
+        Map<String, Double> resultRates = latestRates.getRates();
         assertEquals(4, resultRates.size());
         assertEquals(0.000063, resultRates.get("USD"));
         assertEquals(0.000058, resultRates.get("EUR"));
 
+        // Lookups go through the primitive rate table
+        assertEquals(4, latestRates.getRateTable().size());
+        assertEquals(0.0092, latestRates.getRateTable().rateOf("JPY"));
+        assertEquals(1d, latestRates.getRateTable().rateOf("IDR"));
+
         // Verify correct endpoint was called
         verify(webClient, times(1)).get();
         verify(requestHeadersUriSpec, times(1)).uri("/latest?base=IDR");
         verify(requestHeadersSpec, times(1)).retrieve();
-        verify(responseSpec, times(1)).bodyToMono(Object.class);
+        verify(responseSpec, times(1)).bodyToMono(byte[].class);
     }
 
     @Test
@@ -99,21 +106,19 @@ class LatestRatesFetcherTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Object.class)).thenReturn(Mono.just(mockResponse));
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(json(mockResponse)));
 
         // Act
         Object[] result = latestRatesFetcher.fetchData();
 
         // Assert
         assertNotNull(result);
-        @SuppressWarnings("unchecked")
-        Map<String, Object> resultMap = (Map<String, Object>) result[0];
+        LatestRates latestRates = (LatestRates) result[0];
 
         // Verify that USD_BuySpread_IDR exists with spread applied
-        assertNotNull(resultMap.get("USD_BuySpread_IDR"));
-        assertTrue(resultMap.get("USD_BuySpread_IDR") instanceof Double);
+        assertNotNull(latestRates.getUsdBuySpreadIdr());
 
-        Double usdBuySpread = (Double) resultMap.get("USD_BuySpread_IDR");
+        Double usdBuySpread = latestRates.getUsdBuySpreadIdr();
 
         // Calculate expected spread factor for "testuser"
         double expectedSpreadFactor = calculateExpectedSpreadFactor(TEST_GITHUB_USERNAME);
@@ -121,6 +126,30 @@ class LatestRatesFetcherTest {
 
         // Verify the spread was applied correctly
         assertEquals(expectedBuySpread, usdBuySpread, 0.01);
+
+        // and it is the USD slot of the full priced table
+        assertEquals(usdBuySpread, latestRates.getPriceTable().buyOf("USD"));
+        assertEquals((1 / 0.000063) * (1 - expectedSpreadFactor), latestRates.getPriceTable().sellOf("USD"), 0.01);
+    }
+
+    @Test
+    void toLatestRates_shouldKeepLegacyUsdBuySpread_whenUsdSpreadIsOverridden() {
+        // Arrange
+        PricingProperties properties = new PricingProperties();
+        properties.getSpreads().put("USD", 0.05);
+        LatestRatesFetcher overridden = new LatestRatesFetcher(webClient, new PricingEngine(properties));
+        ReflectionTestUtils.setField(overridden, "githubUsername", TEST_GITHUB_USERNAME);
+        byte[] body = json(Map.of("base", "IDR", "rates", Map.of("USD", 0.000063)));
+
+        // Act
+        LatestRates latestRates = overridden.toLatestRates(RatesJsonDecoder.decodeLatest(body));
+
+        // Assert - the override prices the table, the legacy field keeps the username-derived spread
+        double expectedSpreadFactor = calculateExpectedSpreadFactor(TEST_GITHUB_USERNAME);
+        assertEquals((1 / 0.000063) * (1 + expectedSpreadFactor), latestRates.getUsdBuySpreadIdr(), 0.01);
+        assertEquals((1 / 0.000063) * 1.05, latestRates.getPriceTable().buyOf("USD"), 0.01);
+        assertEquals(latestRatesFetcher.toLatestRates(RatesJsonDecoder.decodeLatest(body)).getUsdBuySpreadIdr(),
+                latestRates.getUsdBuySpreadIdr());
     }
 
     private double calculateExpectedSpreadFactor(String username) {
@@ -142,7 +171,7 @@ class LatestRatesFetcherTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri("/latest?base=IDR")).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Object.class)).thenReturn(Mono.just(mockResponse));
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(json(mockResponse)));
 
         // Act
         latestRatesFetcher.fetchData();
@@ -157,7 +186,7 @@ class LatestRatesFetcherTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Object.class))
+        when(responseSpec.bodyToMono(byte[].class))
                 .thenReturn(Mono.error(new RuntimeException("API connection failed")));
 
         // Act & Assert
@@ -177,18 +206,22 @@ class LatestRatesFetcherTest {
         when(webClient.get()).thenReturn(requestHeadersUriSpec);
         when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
         when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(Object.class)).thenReturn(Mono.just(mockResponse));
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(json(mockResponse)));
 
         // Act
         Object[] result = latestRatesFetcher.fetchData();
 
         // Assert
         assertNotNull(result);
-        @SuppressWarnings("unchecked")
-        Map<String, Object> resultMap = (Map<String, Object>) result[0];
+        LatestRates latestRates = (LatestRates) result[0];
+
+        // Should not have rates or a buy spread when rates is null
+        assertNull(latestRates.getRates());
+        assertNull(latestRates.getRateTable());
+        assertNull(latestRates.getUsdBuySpreadIdr());
+    }
 
-        // Should not have rates or adjustedRates when rates is null
-        assertNull(resultMap.get("rates"));
-        assertNull(resultMap.get("adjustedRates"));
+    private static byte[] json(Object body) {
+        return JsonMapper.builder().build().writeValueAsBytes(body);
     }
 }
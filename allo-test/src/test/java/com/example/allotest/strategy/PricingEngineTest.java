@@ -0,0 +1,61 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.config.PricingProperties;
+import com.example.allotest.model.PriceTable;
+import com.example.allotest.model.RateTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingEngineTest {
+
+    @Test
+    void price_shouldMarkEveryCurrencyUpAndDown_withOverridesTakingPrecedence() {
+        // Arrange
+        PricingProperties properties = new PricingProperties();
+        properties.getSpreads().put(" jpy ", 0.02);
+        PricingEngine engine = new PricingEngine(properties);
+        RateTable table = new RateTable("2024-01-15", "IDR", 1d, new String[]{"USD", "EUR", "JPY"},
+                new double[]{0.000063, 0.000058, 0.0092});
+
+        // Act
+        PriceTable prices = engine.price(table, 0.005);
+
+        // Assert
+        assertEquals((1 / 0.000063) * 1.005, prices.buyOf("USD"), 1e-9);
+        assertEquals((1 / 0.000063) * 0.995, prices.sellOf("USD"), 1e-9);
+        assertEquals(0.005, prices.spreadOf("EUR"));
+        assertEquals(0.02, prices.spreadOf("JPY"));
+        assertEquals((1 / 0.0092) * 1.02, prices.buyOf("JPY"), 1e-9);
+        assertTrue(Double.isNaN(prices.buyOf("GBP")));
+    }
+
+    @Test
+    void price_shouldLeaveUnusableRatesUnpriced_andOutOfTheMap() {
+        // Arrange - quoted per 100 IDR
+        RateTable table = new RateTable("2024-01-15", "IDR", 100d, new String[]{"USD", "XAU"},
+                new double[]{0.0063, 0});
+
+        // Act
+        PriceTable prices = PricingEngine.price(table, new double[]{0.01, 0.01});
+
+        // Assert
+        assertEquals((100 / 0.0063) * 1.01, prices.buyOf("USD"), 1e-9);
+        assertTrue(Double.isNaN(prices.buyOf("XAU")));
+        Map<String, PriceTable.Quote> map = prices.toMap();
+        assertEquals(1, map.size());
+        assertEquals(prices.sellOf("USD"), map.get("USD").getSell());
+    }
+
+    @Test
+    void constructor_shouldRejectSpreadOutsideUnitRange() {
+        // Arrange
+        PricingProperties properties = new PricingProperties();
+        properties.getSpreads().put("USD", 1.5);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(properties));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.allotest.strategy;
+
+import com.example.allotest.model.HistoricalRates;
+import com.example.allotest.model.RateTable;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesJsonDecoderTest {
+
+    @Test
+    void decodeLatest_shouldReadRatesAndSkipEverythingElse() {
+        // Arrange
+        byte[] body = bytes("{\"amount\":1.0,\"base\":\"IDR\",\"extra\":{\"nested\":[1,2,{\"x\":3}]},"
+                + "\"date\":\"2024-01-05\",\"rates\":{\"USD\":0.000063,\"usd\":1,\"EUR\":\"n/a\",\"JPY\":0.0092}}");
+
+        // Act
+        RateTable rateTable = RatesJsonDecoder.decodeLatest(body);
+
+        // Assert
+        assertEquals("IDR", rateTable.getBase());
+        assertEquals("2024-01-05", rateTable.getDate());
+        assertEquals(2, rateTable.size());
+        assertEquals(0.000063, rateTable.rateOf("USD"));
+        assertEquals(0.0092, rateTable.rateOf("JPY"));
+        assertFalse(rateTable.contains("EUR"));
+    }
+
+    @Test
+    void decodeLatest_shouldMatchTreeDecoding() {
+        // Arrange
+        byte[] body = bytes("{\"amount\":1.0,\"base\":\"IDR\",\"date\":\"2024-01-05\","
+                + "\"rates\":{\"USD\":0.000063,\"EUR\":0.000058,\"GBP\":5}}");
+
+        // Act
+        RateTable streamed = RatesJsonDecoder.decodeLatest(body);
+        RateTable fromTree = RateTable.fromResponse(JsonMapper.builder().build().readValue(body, Map.class));
+
+        // Assert
+        assertEquals(fromTree.toMap(), streamed.toMap());
+        assertEquals(fromTree.getAmount(), streamed.getAmount());
+    }
+
+    @Test
+    void decodeLatest_shouldReturnNull_whenBodyHasNoRates() {
+        assertNull(RatesJsonDecoder.decodeLatest(bytes("{\"base\":\"IDR\",\"rates\":null}")));
+        assertNull(RatesJsonDecoder.decodeLatest(bytes("[]")));
+    }
+
+    @Test
+    void decodeHistorical_shouldBuildColumns_evenWhenBaseComesLast() {
+        // Arrange
+        byte[] body = bytes("{\"amount\":1.0,\"start_date\":\"2024-01-01\",\"rates\":{"
+                + "\"2024-01-01\":{\"USD\":0.000063,\"EUR\":0.000058},"
+                + "\"2024-01-02\":{\"USD\":0.000064},"
+                + "\"2024-01-03\":null},\"base\":\"IDR\"}");
+
+        // Act
+        HistoricalRates rates = RatesJsonDecoder.decodeHistorical(body);
+
+        // Assert
+        assertEquals("IDR", rates.getBase());
+        assertEquals(2, rates.seriesCount());
+        assertEquals(2, rates.series("USD").size());
+        assertEquals((int) LocalDate.of(2024, 1, 2).toEpochDay(), rates.series("USD").dayAt(1));
+        assertEquals(0.000064, rates.series("USD").rateAt(1));
+        assertEquals(1, rates.series("EUR").size());
+    }
+
+    @Test
+    void decodeHistorical_shouldFail_onMalformedBodyOrDate() {
+        assertThrows(JacksonException.class, () -> RatesJsonDecoder.decodeHistorical(bytes("{\"rates\":{\"2024-01-01\":")));
+        assertThrows(DateTimeException.class,
+                () -> RatesJsonDecoder.decodeHistorical(bytes("{\"rates\":{\"2024-13-01\":{\"USD\":1}}}")));
+    }
+
+    @Test
+    void epochDay_shouldAgreeWithLocalDate() {
+        for (LocalDate date = LocalDate.of(1899, 12, 1); date.getYear() < 2101; date = date.plusDays(1)) {
+            assertEquals(date.toEpochDay(), RatesJsonDecoder.epochDay(date.toString()), date.toString());
+        }
+        assertEquals(LocalDate.of(0, 1, 1).toEpochDay(), RatesJsonDecoder.epochDay("0000-01-01"));
+        assertEquals(LocalDate.of(9999, 12, 31).toEpochDay(), RatesJsonDecoder.epochDay("9999-12-31"));
+    }
+
+    @Test
+    void epochDay_shouldReject_impossibleDays() {
+        for (String date : new String[]{"2023-02-29", "1900-02-29", "2024-04-31", "2024-00-10", "2024-01-00"}) {
+            assertThrows(DateTimeException.class, () -> RatesJsonDecoder.epochDay(date), date);
+        }
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.allotest.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stand-in for api.frankfurter.app on a local port, so the whole stack (Reactor Netty pool, codecs,
+// serialization) can be exercised over real HTTP without network access. Serves /latest, /currencies
+// and the start..end and start.. range paths, weekdays only like the real API. Responses are held
+// back by the configured latency on a timer rather than a sleeping thread, a share of requests
+// (errorRate) get a 503, and the payload width is set by the number of currencies.
+public class FakeFrankfurter implements AutoCloseable {
+    private static final String[] KNOWN_CURRENCIES = {
+            "AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "EUR", "GBP", "HKD", "HUF",
+            "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD", "PHP", "PLN", "RON",
+            "SEK", "SGD", "THB", "TRY", "USD", "ZAR"
+    };
+
+    private final Duration latency;
+    private final double errorRate;
+    private final String[] currencies;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService handlers;
+    private ScheduledExecutorService timer;
+
+    public FakeFrankfurter(Duration latency, double errorRate, int currencyCount) {
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.currencies = currencies(currencyCount);
+    }
+
+    public static FakeFrankfurter fromSystemProperties() {
+        return new FakeFrankfurter(
+                Duration.ofMillis(Long.getLong("fake-frankfurter.latency-ms", 50)),
+                Double.parseDouble(System.getProperty("fake-frankfurter.error-rate", "0")),
+                Integer.getInteger("fake-frankfurter.currencies", KNOWN_CURRENCIES.length));
+    }
+
+    public FakeFrankfurter start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        handlers = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fake-frankfurter-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            handlers.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        requests.incrementAndGet();
+        int status;
+        String body;
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            errors.incrementAndGet();
+            status = 503;
+            body = "{\"message\":\"service unavailable\"}";
+        } else {
+            String path = exchange.getRequestURI().getPath();
+            Set<String> wanted = wantedCurrencies(exchange.getRequestURI().getQuery());
+            body = path.equals("/latest") ? latestJson(LocalDate.now(), wanted)
+                    : path.equals("/currencies") ? currenciesJson()
+                    : rangeJson(path.substring(1), wanted);
+            status = body == null ? 404 : 200;
+            if (body == null) {
+                body = "{\"message\":\"not found\"}";
+            }
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (latency.isZero()) {
+            respond(exchange, status, bytes);
+        } else {
+            timer.schedule(() -> handlers.execute(() -> respond(exchange, status, bytes)),
+                    latency.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) {
+        try (exchange) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // the client gave up on the request; nothing left to answer
+        }
+    }
+
+    private Set<String> wantedCurrencies(String query) {
+        Set<String> wanted = new LinkedHashSet<>(Arrays.asList(currencies));
+        if (query == null) {
+            return wanted;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("to=")) {
+                wanted.retainAll(Arrays.asList(parameter.substring(3).toUpperCase(Locale.ROOT).split(",")));
+            }
+        }
+        return wanted;
+    }
+
+    private String latestJson(LocalDate date, Set<String> wanted) {
+        StringBuilder json = new StringBuilder("{\"amount\":1.0,\"base\":\"IDR\",\"date\":\"")
+                .append(lastWeekday(date)).append("\",\"rates\":{");
+        appendRates(json, wanted, date.toEpochDay());
+        return json.append("}}").toString();
+    }
+
+    private String currenciesJson() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < currencies.length; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(currencies[i])
+                    .append("\":\"Currency ").append(currencies[i]).append('"');
+        }
+        return json.append('}').toString();
+    }
+
+    // "2024-01-01..2024-01-31" or the open-ended "2024-01-01.." (up to today)
+    private String rangeJson(String range, Set<String> wanted) {
+        int separator = range.indexOf("..");
+        if (separator < 0) {
+            return null;
+        }
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(range.substring(0, separator));
+            String endText = range.substring(separator + 2);
+            end = endText.isEmpty() ? LocalDate.now() : LocalDate.parse(endText);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+
+        StringBuilder json = new StringBuilder("{\"amount\":1.0,\"base\":\"IDR\",\"start_date\":\"")
+                .append(start).append("\",\"end_date\":\"").append(end).append("\",\"rates\":{");
+        boolean first = true;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            if (isWeekend(day)) {
+                continue;
+            }
+            json.append(first ? "" : ",").append('"').append(day).append("\":{");
+            appendRates(json, wanted, day.toEpochDay());
+            json.append('}');
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    private void appendRates(StringBuilder json, Set<String> wanted, long day) {
+        boolean first = true;
+        for (int i = 0; i < currencies.length; i++) {
+            if (!wanted.contains(currencies[i])) {
+                continue;
+            }
+            double rate = 0.00005 * (i + 1) * (1 + 0.001 * Math.sin(day + i));
+            json.append(first ? "" : ",").append('"').append(currencies[i]).append("\":")
+                    .append(String.format(Locale.ROOT, "%.8f", rate));
+            first = false;
+        }
+    }
+
+    private static LocalDate lastWeekday(LocalDate date) {
+        LocalDate day = date;
+        while (isWeekend(day)) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+
+    private static boolean isWeekend(LocalDate day) {
+        return day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    // the real currency list first, then made-up three-letter codes for wider payloads
+    private static String[] currencies(int count) {
+        String[] codes = new String[Math.max(1, count)];
+        for (int i = 0; i < codes.length; i++) {
+            if (i < KNOWN_CURRENCIES.length) {
+                codes[i] = KNOWN_CURRENCIES[i];
+            } else {
+                int n = i - KNOWN_CURRENCIES.length;
+                codes[i] = "X" + (char) ('A' + (n / 26) % 26) + (char) ('A' + n % 26);
+            }
+        }
+        return codes;
+    }
+}